@@ -3,6 +3,8 @@ package fed.facade;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,11 +13,13 @@ import fed.fdbs.FedConnection;
 import fed.fdbs.FedException;
 import fed.fdbs.FedFileReader;
 import fed.fdbs.FedLogger;
+import fed.fdbs.FedPreparedStatement;
 import fed.fdbs.FedPseudoDriver;
 import fed.fdbs.FedResultSet;
 import fed.fdbs.FedShutdown;
 import fed.fdbs.FedStatement;
 import fed.parser.ParseException;
+import fed.parser.Parser;
 import fed.parser.TokenMgrError;
 
 /**
@@ -25,6 +29,15 @@ import fed.parser.TokenMgrError;
  *
  */
 public class FDBSFacade {
+    
+    // Current run of INSERT statements into the same table, executed as one batch per database
+    private FedPreparedStatement batch;
+    private String batch_key;
+    
+    // Values that can be bound to a parameter: a single string literal ('' is a quote), NULL or a number
+    private static final String STRING  = "'([^']|'')*'";
+    private static final String NUMBER  = "-?[0-9]*\\.?[0-9]+";
+    private static final String INTEGER = "-?[0-9]{1,9}";
 
     static {
         Runtime.getRuntime().addShutdownHook(new Thread(new FedShutdown()));
@@ -34,7 +47,7 @@ public class FDBSFacade {
 
         // Load system configuration or terminate if fails to load
         FedConfig.loadProperties(); 
-
+        
         System.out.println("Application started. Loading APIs...");
         
         File[] files = new File(FedConfig.scripts).listFiles();
@@ -76,10 +89,15 @@ public class FDBSFacade {
     
                     for (String statement : sqls) {
                         try {
-                            /* TODO: Want to fork it?
-                             * - For scripts only containing INSERT statements, 
-                             *   implement FedPreparedStatement to improve performance
-                             */
+                            List<String> values = getBatchValues(statement);
+                            
+                            if (values != null) {
+                                // Consecutive INSERT statements are sent in batches
+                                addBatch(fco, statement, values);
+                                continue;
+                            }
+                            executeBatch();
+                            
                             Object rs = fst.execute(statement);
                                 
                             statement = statement.toUpperCase();
@@ -97,6 +115,7 @@ public class FDBSFacade {
                             FedLogger.error("FDBS Parser Exception: " + pe.getMessage().trim());
                         }
                     }
+                    executeBatch();
                     FedLogger.trace("Execution completed in " + getElapsedTime(start_time, System.currentTimeMillis()) + "\n");
                 }
                 catch (FileNotFoundException ff) {
@@ -128,9 +147,126 @@ public class FDBSFacade {
         }
     }
     
+    /**
+     * Return the literal values of a statement that can be executed in a batch, i.e. an 
+     * INSERT INTO ... VALUES statement containing only string, numeric and NULL values. Any other 
+     * value (e.g. an expression like 'a' || 'b') is executed without batch.
+     * 
+     * @param statement
+     * @return the values of the INSERT statement or null if it can't be executed in a batch
+     */
+    private static List<String> getBatchValues (String statement) {
+        String SQL = statement.toUpperCase().trim();
+        
+        if (!SQL.startsWith("INSERT") || !SQL.contains("VALUES") || !SQL.endsWith(")")) {
+            return null;
+        }
+        
+        List<String> values = FedStatement.getInsertValues(statement);
+        
+        for (String value : values) {
+            if (!value.matches(STRING) && !value.equalsIgnoreCase("NULL") && !value.matches(NUMBER)) {
+                return null;
+            }
+        }
+        
+        return values;
+    }
+    
+    /**
+     * Add an INSERT statement to the current batch. A new batch is started if the statement 
+     * inserts into another table than the previous one.
+     * 
+     * @param fco
+     * @param statement
+     * @param values
+     *          the literal values of the statement
+     * @throws FedException
+     * @throws ParseException
+     */
+    private void addBatch (FedConnection fco, String statement, List<String> values) throws FedException, ParseException {
+        String SQL   = statement.toUpperCase().trim();
+        String table = SQL.substring(SQL.indexOf("INTO") + 4, SQL.indexOf("VALUES")).trim();
+        String key   = table + "(" + values.size() + ")";
+        
+        if (batch != null && !key.equals(batch_key)) {
+            executeBatch();
+        }
+        
+        FedLogger.trace("Statement: " + statement);
+        
+        // Parser validation
+        if (FedConfig.validate) {
+            new Parser(statement).validate();
+        }
+        
+        if (batch == null) {
+            String params = "?";
+            for (int i = 1; i < values.size(); i++) params += ", ?";
+            
+            batch = fco.prepareStatement("INSERT INTO " + table + " VALUES (" + params + ")");
+            batch_key = key;
+        }
+        
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            
+            if (value.matches(STRING)) {
+                batch.setString(i + 1, value.substring(1, value.length() - 1).replace("''", "'"));
+            }
+            else if (value.equalsIgnoreCase("NULL")) {
+                batch.setNull(i + 1, Types.VARCHAR);
+            }
+            else if (value.matches(INTEGER)) {
+                batch.setInt(i + 1, Integer.parseInt(value));
+            }
+            else {
+                batch.setBigDecimal(i + 1, new BigDecimal(value));
+            }
+        }
+        batch.addBatch();
+    }
+    
+    /**
+     * Execute the current batch of INSERT statements and log the errors of the failed statements.
+     */
+    private void executeBatch () {
+        if (batch == null) {
+            return;
+        }
+        
+        try {
+            int[] counts    = batch.executeBatch();
+            String[] errors = batch.getErrors();
+            int rows = 0;
+            
+            for (int i = 0; i < counts.length; i++) {
+                if (errors[i] != null) {
+                    FedLogger.error("FDBS Execution Exception: " + errors[i]);
+                } 
+                else {
+                    rows += counts[i];
+                }
+            }
+            FedLogger.info(rows + " rows inserted");
+        }
+        catch (FedException e) {
+            FedLogger.error("FDBS Execution Exception: " + e.getMessage());
+        }
+        finally {
+            try {
+                batch.close();
+            } catch (FedException e) {
+                FedLogger.error("FDBS Execution Exception: " + e.getMessage());
+            }
+            batch = null;
+            batch_key = null;
+        }
+    }
+    
     private static String getElapsedTime (long start, long end) {
         long total = end - start;
-
+        
         return  (total >= 60000 ? (total / 1000 / 60) + "m, " + (total / 1000 % 60) + "s" : "") +
                 (total >= 1000 && total < 60000 ? (total / 1000) + "s, " + (total % 1000) + "ms" : "") +
                 (total < 1000 ? total + "ms" : "");
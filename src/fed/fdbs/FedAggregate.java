@@ -0,0 +1,44 @@
+package fed.fdbs;
+
+/**
+ * Aggregate functions whose partial results (one per database) can be merged into the global result.
+ *
+ */
+public enum FedAggregate {
+    COUNT, SUM, MIN, MAX;
+    
+    
+    /**
+     * Merge two partial results of this function.
+     * 
+     * @param a
+     * @param b
+     * @return the merged result
+     */
+    public long merge (long a, long b) {
+        switch (this) {
+            case MIN: return Math.min(a, b);
+            case MAX: return Math.max(a, b);
+            default:  return a + b;
+        }
+    }
+    
+    /**
+     * Return the aggregate function computed by a column, e.g. COUNT(*) or SUM(BUCHUNG.MEILEN).
+     * 
+     * @param column
+     *          the name of the column
+     * @return the aggregate function or null if the column is not an aggregate function
+     */
+    public static FedAggregate fromColumn (String column) {
+        String name = column.toUpperCase().replaceAll("\\s", "");
+        
+        for (FedAggregate function : values()) {
+            if (name.startsWith(function.name() + "(")) {
+                return function;
+            }
+        }
+        
+        return null;
+    }
+}
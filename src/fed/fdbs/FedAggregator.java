@@ -0,0 +1,263 @@
+package fed.fdbs;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * It merges the partial results of an aggregate query (SELECT attribute, COUNT(*)|SUM|MIN|MAX(column) ... 
+ * GROUP BY attribute, or SELECT COUNT(*) ... without GROUP BY) executed on every database into the 
+ * global result. The partial aggregates 
+ * are kept in memory in a FedGroupTable and the result is returned as a FedMemoryResultSet.
+ * 
+ * The HAVING clause is not sent to the databases, because it must be evaluated on the merged groups 
+ * and not on the partial groups of each database. It is evaluated while the merged groups are read.
+ *
+ */
+public class FedAggregator {
+    
+    // Estimated number of groups if nothing is known about the grouping column
+    public static final int DEFAULT_GROUPS = 1024;
+    
+    // GROUP BY attribute
+    private static final Pattern GROUP_BY = Pattern.compile("(?i)\\s+GROUP\\s+BY\\s+([\\w.$#\"]+)");
+    
+    // HAVING aggregate operator value
+    private static final Pattern HAVING = Pattern.compile("(?i)\\s+HAVING\\s+(.+?)\\s*(<=|>=|<>|!=|=|<|>)\\s*(-?[0-9]+)\\s*;?\\s*$");
+    
+    
+    /**
+     * Return the query to be executed on each database: the query without its HAVING clause. If the 
+     * HAVING clause uses another aggregate function than the selected one, that function is added 
+     * as third column.
+     * 
+     * @param sql
+     *          SELECT attribute, function FROM ... GROUP BY attribute [HAVING function op value]
+     * @return the query computing the partial groups
+     */
+    public static String getPartialQuery (String sql) {
+        Matcher having = HAVING.matcher(sql);
+        
+        if (!having.find()) {
+            return sql;
+        }
+        
+        String query = sql.substring(0, having.start());
+        
+        if (!isSelected(sql, having.group(1))) {
+            int from = query.toUpperCase().indexOf(" FROM ");
+            query = query.substring(0, from) + ", " + having.group(1).trim() + query.substring(from);
+        }
+        
+        return query;
+    }
+    
+    /**
+     * Return the grouping attribute of a query.
+     * 
+     * @param sql
+     *          SELECT attribute, function FROM ... GROUP BY attribute [HAVING function op value]
+     * @return the attribute as written in the query, null if there is no GROUP BY clause
+     */
+    public static String getGroupColumn (String sql) {
+        Matcher group = GROUP_BY.matcher(sql);
+        
+        return group.find() ? group.group(1) : null;
+    }
+    
+    /* Is the aggregate function the selected one? */
+    private static boolean isSelected (String sql, String function) {
+        String SQL = sql.toUpperCase().replaceAll("\\s", "");
+        String selected = SQL.substring(SQL.indexOf(",") + 1, SQL.indexOf("FROM"));
+        
+        return selected.equals(function.toUpperCase().replaceAll("\\s", ""));
+    }
+    
+    
+    /**
+     * Merge the groups of the partial results. COUNT and SUM values of the same group are added, 
+     * MIN and MAX values are compared. The merged groups are filtered by the HAVING clause of the 
+     * query, if any.
+     * 
+     * @param rs
+     *          the partial results of the databases (index 1 to 3), null if a database was not queried. 
+     *          They are the results of the query returned by getPartialQuery.
+     * @param sql
+     *          the original query
+     * @param expected
+     *          the estimated number of groups
+     * @return the merged groups
+     * @throws SQLException
+     */
+    public static FedMemoryResultSet merge (ResultSet[] rs, String sql, int expected) throws SQLException {
+        Matcher having = HAVING.matcher(sql);
+        ResultSetMetaData meta = null;
+        
+        for (int db = 1; db <= 3 && meta == null; db++) {
+            meta = rs[db] != null ? rs[db].getMetaData() : null;
+        }
+        
+        // Column of the aggregate function used in the HAVING clause (0 if there is none)
+        int hcolumn = having.find() ? isSelected(sql, having.group(1)) ? 2 : 3 : 0;
+        int columns = Math.max(hcolumn, 2);
+        
+        FedAggregate[] functions = new FedAggregate[columns - 1];
+        for (int i = 2; i <= columns; i++) {
+            FedAggregate function = FedAggregate.fromColumn(meta.getColumnName(i));
+            functions[i - 2] = function != null ? function : FedAggregate.SUM;
+        }
+        
+        // Integer keys are grouped as primitive longs, as BigDecimal if they don't fit into a long
+        boolean integer_keys = isInteger(meta, 1);
+        boolean long_keys    = integer_keys;
+        FedLongGroupTable long_groups     = long_keys ? new FedLongGroupTable(functions, expected) : null;
+        FedObjectGroupTable object_groups = long_keys ? null : new FedObjectGroupTable(functions, expected);
+        FedGroupTable groups = long_keys ? long_groups : object_groups;
+        
+        for (int db = 1; db <= 3; db++) {
+            while (rs[db] != null && rs[db].next()) {
+                int group;
+                
+                if (long_keys) {
+                    try {
+                        long key = rs[db].getLong(1);
+                        group = rs[db].wasNull() ? groups.nullGroup() : long_groups.group(key);
+                    } catch (SQLException e) {
+                        // Numeric overflow: continue with the groups as BigDecimal keys
+                        object_groups = toObjectGroups(long_groups, functions, expected);
+                        groups    = object_groups;
+                        long_keys = false;
+                        group     = object_groups.group(rs[db].getBigDecimal(1));
+                    }
+                }
+                else {
+                    group = object_groups.group(integer_keys ? rs[db].getBigDecimal(1) : rs[db].getString(1));
+                }
+                
+                for (int i = 2; i <= columns; i++) {
+                    long value = rs[db].getLong(i);
+                    
+                    // NULL partial aggregates (e.g. SUM of NULL values) are ignored
+                    if (!rs[db].wasNull()) {
+                        groups.accumulate(group, i - 2, value);
+                    }
+                }
+            }
+        }
+        
+        String[] names = { meta.getColumnName(1), meta.getColumnName(2) };
+        int[] types    = { meta.getColumnType(1), meta.getColumnType(2) };
+        List<Object[]> rows = new ArrayList<>(groups.size());
+        long constant  = hcolumn > 0 ? Long.parseLong(having.group(3)) : 0;
+        
+        for (int group = 0; group < groups.size(); group++) {
+            if (hcolumn == 0 || (!groups.isNull(group, hcolumn - 2) 
+                                 && matches(groups.getValue(group, hcolumn - 2), having.group(2), constant))) {
+                rows.add(new Object[] { groups.getKey(group), groups.isNull(group, 0) ? null : groups.getValue(group, 0) });
+            }
+        }
+        
+        return new FedMemoryResultSet(names, types, rows);
+    }
+    
+    /**
+     * Merge the partial results of an aggregate query without GROUP BY, e.g. SELECT COUNT(*) FROM 
+     * table. Every database returns a single row, the values of each column are merged as longs.
+     * 
+     * @param rs
+     *          the partial results of the databases (index 1 to 3), null if a database was not queried
+     * @return the single row result
+     * @throws SQLException
+     */
+    public static FedMemoryResultSet mergeScalar (ResultSet[] rs) throws SQLException {
+        ResultSetMetaData meta = null;
+        
+        for (int db = 1; db <= 3 && meta == null; db++) {
+            meta = rs[db] != null ? rs[db].getMetaData() : null;
+        }
+        
+        String[] names  = new String[meta.getColumnCount()];
+        int[] types     = new int[names.length];
+        Object[] values = new Object[names.length];
+        
+        for (int i = 0; i < names.length; i++) {
+            names[i] = meta.getColumnName(i + 1);
+            types[i] = meta.getColumnType(i + 1);
+        }
+        
+        for (int db = 1; db <= 3; db++) {
+            if (rs[db] == null || !rs[db].next()) {
+                continue;
+            }
+            
+            for (int i = 0; i < names.length; i++) {
+                FedAggregate function = FedAggregate.fromColumn(names[i]);
+                long value = rs[db].getLong(i + 1);
+                
+                // NULL partial aggregates (e.g. SUM of no rows) are ignored
+                if (!rs[db].wasNull()) {
+                    values[i] = values[i] == null ? value 
+                              : (function != null ? function : FedAggregate.SUM).merge((Long) values[i], value);
+                }
+            }
+        }
+        
+        List<Object[]> rows = new ArrayList<>(1);
+        rows.add(values);
+        
+        return new FedMemoryResultSet(names, types, rows);
+    }
+    
+    /* Copy the groups of a table with long keys into a table with BigDecimal keys */
+    private static FedObjectGroupTable toObjectGroups (FedLongGroupTable long_groups, FedAggregate[] functions, 
+                                                      int expected) {
+        FedObjectGroupTable object_groups = new FedObjectGroupTable(functions, Math.max(expected, long_groups.size()));
+        
+        for (int group = 0; group < long_groups.size(); group++) {
+            int copy = long_groups.isNullGroup(group) ? object_groups.nullGroup() 
+                     : object_groups.group(BigDecimal.valueOf((Long) long_groups.getKey(group)));
+            
+            for (int i = 0; i < functions.length; i++) {
+                if (!long_groups.isNull(group, i)) {
+                    object_groups.accumulate(copy, i, long_groups.getValue(group, i));
+                }
+            }
+        }
+        
+        return object_groups;
+    }
+    
+    /* Is the column an integer column? Oracle reports NUMBER columns with precision 38 or 0 */
+    private static boolean isInteger (ResultSetMetaData meta, int column) throws SQLException {
+        switch (meta.getColumnType(column)) {
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return true;
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return meta.getScale(column) == 0;
+            default:
+                return false;
+        }
+    }
+    
+    /* Evaluate the comparison "value op constant" */
+    private static boolean matches (long value, String op, long constant) {
+        switch (op) {
+            case "=":  return value == constant;
+            case "<":  return value < constant;
+            case "<=": return value <= constant;
+            case ">":  return value > constant;
+            case ">=": return value >= constant;
+            default:   return value != constant;
+        }
+    }
+}
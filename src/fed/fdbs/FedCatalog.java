@@ -1,89 +1,334 @@
 package fed.fdbs;
 
-import java.sql.DriverManager;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * It defines the names of the METADATA and OPERATION tables, and provides methods to create them 
- * (if not yet created). It also provides a method to drop all the temporal tables used on the 
- * distributed joins.
+ * It defines the name of the METADATA table, and provides a method to create it 
+ * (if not yet created). It keeps an in-memory copy of the distribution schema that is updated 
+ * when distributed tables are created or dropped. It also provides a method to drop all the 
+ * temporal tables used on the distributed joins.
+ * 
+ * Horizontally partitioned tables are stored in the METADATA table with their partitioning column 
+ * and boundaries. Replicated tables (a full copy on every database) are stored without partitioning 
+ * column.
+ * 
+ * The catalog doesn't keep any Statement: the methods accessing a database receive the Statement 
+ * of the calling session. The distribution schema is an immutable snapshot read without locks by 
+ * every session and replaced (under a lock) when a distributed table is created or dropped.
+ * 
+ * The statistics of the tables used by the FedPlanner are gathered when they are first needed and 
+ * kept until too many rows of the table were modified.
  *
  */
 public class FedCatalog {
     // Catalog tables
     public static final String METADATA  = "FEDMETADATA";
-    public static final String OPERATION = "FEDOPERATION";
     public static final String TEMPREFIX = "FT$_";
     
+    // Identifies the temporal tables of this FDBS among those of other FDBS using the same databases
+    private static final String INSTANCE = Long.toString(new SecureRandom().nextInt() & Integer.MAX_VALUE, 36).toUpperCase();
+    
     // DB codes
     public static final String ERRORA00942 = "ORA-00942";      // Table or view does not exist (Oracle)
     public static final int SUCCESS        = 1; 
     public static final int NO_EXECUTION   = 0; 
     
-    // Statement of the main DB connection
-    private static Statement stmt;
-
+    // The METADATA table is checked by the first connection only
+    private static volatile boolean metadata_checked;
     
-    /* Main DB Statement Setter */
-    public static void setStatement (Statement stmt) {
-        FedCatalog.stmt = stmt;
-    }
+    // In-memory catalog of the distributed tables (immutable, replaced on every change)
+    private static volatile Snapshot catalog;
+    
+    // Statistics of the tables used by the FedPlanner
+    private static final Map<String, FedStatistics> statistics = new ConcurrentHashMap<>();
     
     
     /**
+     * @param st
+     *          Statement of the main DB
      * @throws SQLException if it's not possible to create the METADATA table
      */
-    public static void createMetadataTable () throws SQLException {
-        if (stmt != null) {
+    public static void createMetadataTable (Statement st) throws SQLException {
+        if (!metadata_checked) {
             // Create metadata table if it doesn't exist
             try {       
-                stmt.executeQuery("SELECT * FROM " + METADATA);
+                st.executeQuery("SELECT * FROM " + METADATA).close();
             } catch (SQLException e) {
                 if (e.getMessage().contains(ERRORA00942)) {
                     FedLogger.trace("Creating " + METADATA + " table...");
-                    stmt.executeUpdate("CREATE TABLE " + METADATA  
+                    st.executeUpdate("CREATE TABLE " + METADATA  
                             + " (ftable VARCHAR(20), fcolumn VARCHAR(20), left INTEGER, right INTEGER)");
                 }
             }
+            metadata_checked = true;
         }
     }
     
     /**
-     * @throws SQLException if it's not possible to create the OPERATION table
+     * Reads all the distributed tables from the METADATA table into the catalog cache, unless they 
+     * were already read by another session.
+     * 
+     * @param st
+     *          Statement of the main DB
+     * @throws SQLException
      */
-    public static void createOperationTable () throws SQLException {
-        if (stmt != null) {
-            // Create operation table if it doesn't exist
-            try {       
-                stmt.executeQuery("SELECT * FROM " + OPERATION);
-            } catch (SQLException e) {
-                if (e.getMessage().contains(ERRORA00942)) {
-                    FedLogger.trace("Creating " + OPERATION + " table...");
-                    stmt.executeUpdate("CREATE TABLE " + OPERATION + " (TEMP INTEGER)");
-                }
+    public static synchronized void load (Statement st) throws SQLException {
+        if (catalog == null) {
+            Map<String, FedPartition> partitions = new HashMap<>();
+            
+            for (FedPartition partition : readPartitions(st, "")) {
+                partitions.put(partition.getTable(), partition);
             }
+            
+            catalog = new Snapshot(partitions, new HashSet<>(readReplicated(st, "")));
         }
     }
     
     /**
-     * @param table     
+     * Returns the partitioning descriptor of a distributed table. The catalog is read from the 
+     * METADATA table when the first FedStatement is created (see load) and it is kept in memory 
+     * afterwards, so this method doesn't access the database.
+     * 
+     * @param table
      *          the table to search on the catalog
-     * @return A ResultSet containing the metadata of the distributed table if this exists, null otherwise.
+     * @return A FedPartition object if the table is distributed, null otherwise.
+     * @throws SQLException if the catalog was not loaded
+     */
+    public static FedPartition getPartition (String table) throws SQLException {
+        return getSnapshot().partitions.get(table);
+    }
+    
+    /**
+     * Checks if a table is replicated, i.e. a full copy of the table is stored on every database.
+     * Like getPartition, it doesn't access the database.
+     * 
+     * @param table
+     * @return true if the table is replicated
+     * @throws SQLException if the catalog was not loaded
+     */
+    public static boolean isReplicated (String table) throws SQLException {
+        return getSnapshot().replicated.contains(table);
+    }
+    
+    /**
+     * Reads the metadata of a distributed (partitioned or replicated) table from the METADATA table 
+     * into the catalog cache. To be called after the table was created.
+     * 
+     * @param st
+     *          Statement of the main DB
+     * @param table
+     * @throws SQLException
+     */
+    public static synchronized void refreshPartition (Statement st, String table) throws SQLException {
+        load(st);
+        
+        Map<String, FedPartition> partitions = new HashMap<>(catalog.partitions);
+        Set<String> copies = new HashSet<>(catalog.replicated);
+        
+        partitions.remove(table);
+        for (FedPartition partition : readPartitions(st, " AND m.ftable = '" + table + "'")) {
+            partitions.put(partition.getTable(), partition);
+        }
+        
+        copies.remove(table);
+        copies.addAll(readReplicated(st, " AND ftable = '" + table + "'"));
+        
+        catalog = new Snapshot(partitions, copies);
+        statistics.remove(table);
+    }
+    
+    /**
+     * Removes a distributed (partitioned or replicated) table from the catalog cache. To be called 
+     * after the table was dropped.
+     * 
+     * @param table
+     */
+    public static synchronized void removePartition (String table) {
+        Snapshot current = catalog;
+        
+        if (current != null && (current.partitions.containsKey(table) || current.replicated.contains(table))) {
+            Map<String, FedPartition> partitions = new HashMap<>(current.partitions);
+            Set<String> copies = new HashSet<>(current.replicated);
+            
+            partitions.remove(table);
+            copies.remove(table);
+            catalog = new Snapshot(partitions, copies);
+        }
+        statistics.remove(table);
+    }
+    
+    /**
+     * @return true if the catalog was read by a FedStatement
+     */
+    public static boolean isLoaded () {
+        return catalog != null;
+    }
+    
+    /* The current catalog */
+    private static Snapshot getSnapshot () throws SQLException {
+        Snapshot current = catalog;
+        
+        if (current == null) {
+            throw new SQLException("The FDBS catalog is not loaded");
+        }
+        
+        return current;
+    }
+    
+    /**
+     * Reads the distributed tables from the METADATA table. The position of the partitioning column 
+     * is taken from the column order of the table in the data dictionary of the main DB.
+     * 
+     * @param st
+     *          Statement of the main DB
+     * @param condition
+     *          additional condition on the METADATA table (alias m)
+     * @return the list of the distributed tables
+     * @throws SQLException
+     */
+    private static List<FedPartition> readPartitions (Statement st, String condition) throws SQLException {
+        List<FedPartition> loaded = new ArrayList<>();
+        
+        if (st != null) {
+            ResultSet rs = st.executeQuery("SELECT m.ftable, m.fcolumn, m.left, m.right, c.column_id " 
+                                             + "FROM " + METADATA + " m, user_tab_columns c " 
+                                             + "WHERE c.table_name = m.ftable AND c.column_name = m.fcolumn" 
+                                             + condition);
+            
+            while (rs.next()) {
+                Object right = rs.getObject("right");
+                
+                loaded.add(new FedPartition(rs.getString("ftable"), rs.getString("fcolumn"), rs.getInt("column_id"), 
+                                            rs.getInt("left"), right != null ? Integer.valueOf(right.toString()) : null));
+            }
+            rs.close();
+        }
+        
+        return loaded;
+    }
+    
+    /**
+     * Reads the replicated tables (stored without partitioning column) from the METADATA table.
+     * 
+     * @param st
+     *          Statement of the main DB
+     * @param condition
+     *          additional condition on the METADATA table
+     * @return the names of the replicated tables
      * @throws SQLException
      */
-    public static ResultSet getMetadata (String table) throws SQLException {
-        return stmt != null ? stmt.executeQuery("SELECT * FROM " + METADATA + " WHERE ftable = '" + table + "'") : null;
+    private static List<String> readReplicated (Statement st, String condition) throws SQLException {
+        List<String> loaded = new ArrayList<>();
+        
+        if (st != null) {
+            ResultSet rs = st.executeQuery("SELECT ftable FROM " + METADATA + " WHERE fcolumn IS NULL" + condition);
+            
+            while (rs.next()) {
+                loaded.add(rs.getString("ftable"));
+            }
+            rs.close();
+        }
+        
+        return loaded;
+    }
+    
+    
+    /**
+     * Return the statistics of a table. They are gathered on the databases holding its rows if they 
+     * are not known yet or stale.
+     * 
+     * @param stmt
+     *          the Statement objects of the databases (index 1 to 3)
+     * @param table
+     * @return the statistics of the table
+     * @throws FedException
+     */
+    public static FedStatistics getStatistics (Statement[] stmt, String table) throws FedException {
+        FedStatistics known = statistics.get(table);
+        
+        if (known == null || known.isStale()) {
+            try {
+                FedPartition partition = getPartition(table);
+                boolean[] dbs = partition != null ? partition.getDatabases() : new boolean[] { false, true, false, false };
+                
+                known = FedStatistics.gather(stmt, table, dbs, partition);
+                statistics.put(table, known);
+            } catch (SQLException e) {
+                throw new FedException(e);
+            }
+        }
+        
+        return known;
+    }
+    
+    /**
+     * Return the statistics of a table if they were already gathered, without accessing the databases.
+     * 
+     * @param table
+     * @return the last statistics of the table (possibly stale) or null if they are not known
+     */
+    public static FedStatistics getKnownStatistics (String table) {
+        return statistics.get(table);
+    }
+    
+    /**
+     * Register rows of a table modified by a statement, so that its statistics are gathered again 
+     * once they are stale.
+     * 
+     * @param table
+     * @param count
+     *          the number of inserted, updated or deleted rows
+     */
+    public static void addModifications (String table, long count) {
+        FedStatistics known = statistics.get(table);
+        
+        if (known != null) {
+            known.addModifications(count);
+        }
+    }
+    
+    /**
+     * Removes the statistics of a table. To be called after the table was dropped.
+     * 
+     * @param table
+     */
+    public static void removeStatistics (String table) {
+        statistics.remove(table);
     }
     
     
     /* ****************** Federated JOIN Methods ****************** */
     
+    /**
+     * Returns the name of the temporal copy of a table used by a session: FT$_<instance>_<session>_<index>.
+     * Every session of every FDBS has its own temporal tables, so concurrent joins don't drop or fill 
+     * the tables of each other. The name doesn't contain the name of the table, so it's at most 
+     * 20 characters long (Oracle allows 30).
+     * 
+     * @param session
+     *          the number of the session (FedStatement)
+     * @param index
+     *          the position of the table in the query
+     * @return the name of the temporal table
+     */
+    public static String getTempName (int session, int index) {
+        return TEMPREFIX + INSTANCE + "_" + Integer.toString(session, 36).toUpperCase() + "_" + index;
+    }
+    
     /**
      * Returns a new query with the name of the temporal table to be joined.
      * 
@@ -91,92 +336,210 @@ public class FedCatalog {
      *          the original query
      * @param table
      *          the table to be joined
+     * @param temp
+     *          the name of the temporal table (see getTempName)
      * @return
      *          the new query with the name of the temporal table
      */
-    public static String getTempQuery (String sql, String table) {
-        return sql.replace(table + ".", TEMPREFIX + table + ".")
-                  .replace(table + ",", TEMPREFIX + table + ",")
-                  .replace(table + " ", TEMPREFIX + table + " ");
+    public static String getTempQuery (String sql, String table, String temp) {
+        return sql.replace(table + ".", temp + ".")
+                  .replace(table + ",", temp + ",")
+                  .replace(table + " ", temp + " ");
     }
     
     
     /**
      * Creates a temporal copy of a table
      *  
+     * @param st
+     *          Statement of the database
+     * @param temp
+     *          the name of the temporal table
      * @param table
      *          the table to be copied
+     * @param filter
+     *          WHERE clause restricting the copied rows or an empty string to copy all the rows
      * @throws SQLException
      */
-    public static void createTempTable (String table) throws SQLException {
-        if (stmt != null) {
-            stmt.executeUpdate("CREATE TABLE " + TEMPREFIX + table + " AS SELECT * FROM " + table);
-        }
+    public static void createTempCopy (Statement st, String temp, String table, String filter) throws SQLException {
+        st.executeUpdate("CREATE TABLE " + temp + " AS SELECT * FROM " + table + filter);
     }
     
     /**
      * Inserts the rows from db2.table, [db3.table] into db1.tempTable
      * 
-     * @param table
-     *          inserts go to this table
+     * @param st
+     *          Statement of the database
+     * @param temp
+     *          inserts go to this temporal table
      * @param rst
      *          all rows from db2, [db3]
      * @throws SQLException
      */
-    public static void insertIntoTempTable (String table, ResultSet rst) throws SQLException {
-        /* TODO: Want to fork it?
-         * - Implement inserts with PreparedStatement to improve performance
-         */
-        List<String> inserts = new ArrayList<>();
+    public static void insertIntoTempTable (Statement st, String temp, ResultSet rst) throws SQLException {
+        if (rst == null) {
+            return;
+        }
+        
+        ResultSetMetaData meta = rst.getMetaData();
+        int[] types = new int[meta.getColumnCount()];
+        List<Object[]> rows = new ArrayList<>();
         
-        while (rst != null && rst.next()) {
-            ResultSetMetaData meta = rst.getMetaData();
-            String insert = "INSERT INTO " + TEMPREFIX + table + " VALUES (";
+        for (int i = 0; i < types.length; i++) {
+            types[i] = meta.getColumnType(i + 1);
+        }
+        
+        while (rst.next()) {
+            Object[] row = new Object[types.length];
             
-            for (int i = 1, colcount = meta.getColumnCount(); i <= colcount; i++) {
-                boolean is_int = meta.getColumnType(i) != Types.VARCHAR; 
-                insert += (is_int ? rst.getInt(i) : rst.getString(i) == null ? "null" : 
-                                    "'" + rst.getString(i) + "'")
-                        + (i+1 <= colcount ? ", " : ")");
+            for (int i = 0; i < row.length; i++) {
+                row[i] = rst.getObject(i + 1);
             }
-            inserts.add(insert);
+            rows.add(row);
         }
+        rst.close();
         
-        for (String ins : inserts) {
-            stmt.executeUpdate(ins);
-        }
+        insertIntoTempTable(st, temp, types, rows);
     }
     
     /**
-     * Drops temporal tables 
+     * Inserts rows into the temporal copy of a table on a database, in batches of FedConfig.batchsize rows.
      * 
-     * @throws FedException
+     * @param st
+     *          Statement of the database
+     * @param temp
+     *          inserts go to this temporal table
+     * @param types
+     *          the SQL types (java.sql.Types) of the columns
+     * @param rows
+     *          the values of each row
+     * @throws SQLException
      */
-    public static void dropTempTables () {
-        // SELECT 'DROP TABLE ' || table_name AS sqlcmd FROM user_tables WHERE table_name LIKE 'FT$_%';
-
-        if (stmt != null) {
-            try {
-                if (stmt.isClosed()) {
-                    stmt = DriverManager.getConnection(FedConfig.getDb1(), FedConfig.getUser(), FedConfig.getPasswd()).createStatement();
-                }
-                
-                List<String> drops = new ArrayList<>();
-                ResultSet rs = stmt.executeQuery("SELECT 'DROP TABLE ' || table_name AS sqlcmd " 
-                                                 + "FROM user_tables WHERE table_name LIKE " 
-                                                 + "'" + TEMPREFIX + "%'");
+    public static void insertIntoTempTable (Statement st, String temp, int[] types, List<Object[]> rows) 
+                                                                                        throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        String params = String.join(", ", Collections.nCopies(types.length, "?"));
+        PreparedStatement insert = st.getConnection().prepareStatement("INSERT INTO " + temp 
+                                                                        + " VALUES (" + params + ")");
+        try {
+            for (int r = 0; r < rows.size(); r++) {
+                Object[] row = rows.get(r);
                 
-                while (rs != null && rs.next()) {
-                    drops.add(rs.getString("sqlcmd"));
+                for (int i = 0; i < row.length; i++) {
+                    if (row[i] == null) {
+                        insert.setNull(i + 1, types[i]);
+                    }
+                    else {
+                        insert.setObject(i + 1, row[i]);
+                    }
                 }
+                insert.addBatch();
                 
-                for (String drop : drops) {
-                    stmt.executeUpdate(drop);
+                if ((r + 1) % FedConfig.batchsize == 0 || r == rows.size() - 1) {
+                    insert.executeBatch();
                 }
             }
-            catch (SQLException e) {
-                FedLogger.error("FDBS Execution Exception: Not possible to drop the temporal tables at the moment...");
+        } finally {
+            insert.close();
+        }
+    }
+    
+    /**
+     * Returns the column definitions of a result of a table, e.g. "ID NUMBER, NAME VARCHAR2(20)", 
+     * to create a copy of the table on a database where it doesn't exist.
+     * 
+     * @param meta
+     *          the columns of the result
+     * @return the column definitions
+     * @throws SQLException
+     */
+    public static String getColumnDefinitions (ResultSetMetaData meta) throws SQLException {
+        String columns = "";
+        
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            boolean text = meta.getColumnType(i) == Types.VARCHAR || meta.getColumnType(i) == Types.CHAR;
+            
+            columns += (i > 1 ? ", " : "") + meta.getColumnName(i) + " " + meta.getColumnTypeName(i) 
+                       + (text ? "(" + meta.getPrecision(i) + ")" : "");
+        }
+        
+        return columns;
+    }
+    
+    /**
+     * Creates an empty temporal copy of a table on a database.
+     * 
+     * @param st
+     *          Statement of the database
+     * @param temp
+     *          the name of the temporal table
+     * @param columns
+     *          the column definitions (see getColumnDefinitions)
+     * @throws SQLException
+     */
+    public static void createTempTable (Statement st, String temp, String columns) throws SQLException {
+        st.executeUpdate("CREATE TABLE " + temp + " (" + columns + ")");
+    }
+    
+    /**
+     * Drops a temporal table on a database, if it exists.
+     * 
+     * @param st
+     *          Statement of the database
+     * @param temp
+     *          the name of the temporal table
+     */
+    public static void dropTempTable (Statement st, String temp) {
+        try {
+            st.executeUpdate("DROP TABLE " + temp);
+        } catch (SQLException e) {
+            // The temporal table doesn't exist
+        }
+    }
+    
+    /**
+     * Drops the temporal tables of all the sessions of this FDBS (not those of other FDBS using the 
+     * same database). To be called when no session is running.
+     * 
+     * @param st
+     *          Statement of the database
+     */
+    public static void dropTempTables (Statement st) {
+        // SELECT 'DROP TABLE ' || table_name AS sqlcmd FROM user_tables WHERE table_name LIKE 'FT$\_<instance>\_%' ESCAPE '\';
+        
+        try {
+            List<String> drops = new ArrayList<>();
+            ResultSet rs = st.executeQuery("SELECT 'DROP TABLE ' || table_name AS sqlcmd " 
+                                           + "FROM user_tables WHERE table_name LIKE " 
+                                           + "'" + (TEMPREFIX + INSTANCE + "_").replace("_", "\\_") + "%' ESCAPE '\\'");
+            
+            while (rs != null && rs.next()) {
+                drops.add(rs.getString("sqlcmd"));
             }
+            
+            for (String drop : drops) {
+                st.executeUpdate(drop);
+            }
+        }
+        catch (SQLException e) {
+            FedLogger.error("FDBS Execution Exception: Not possible to drop the temporal tables at the moment...");
+        }
+    }
+    
+    
+    /**
+     * Immutable state of the catalog: the partitioned and the replicated tables.
+     */
+    private static final class Snapshot {
+        final Map<String, FedPartition> partitions;
+        final Set<String> replicated;
+        
+        Snapshot (Map<String, FedPartition> partitions, Set<String> replicated) {
+            this.partitions = Collections.unmodifiableMap(partitions);
+            this.replicated = Collections.unmodifiableSet(replicated);
         }
     }
 }
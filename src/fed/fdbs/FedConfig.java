@@ -25,6 +25,44 @@ public class FedConfig {
     // Number of rows that should be fetched
     public static int fetchsize; 
     
+    // Number of rows sent to each database in one batch (FedPreparedStatement)
+    public static int batchsize = 1000;
+    
+    // Number of rows buffered per database while reading query results (FedStreamResultSet)
+    public static int prefetchsize = 10000;
+    
+    // Return the rows of a query database by database (true) or as soon as they are read (false)
+    public static boolean prefetchordered = true;
+    
+    // Strategy of the joins of distributed tables: auto, hash, semijoin, broadcast or temptable (FedPlanner)
+    public static String joinstrategy = FedJoin.AUTO;
+    
+    // Maximum number of keys sent to the databases by a semi-join in auto strategy
+    public static int semijoinkeys = 1000;
+    
+    // Cost of a round trip to a database, as the number of bytes that could be transferred meanwhile
+    public static int roundtripbytes = 100000;
+    
+    // XADataSource class of the JDBC driver for distributed transactions (two-phase commit), null to 
+    // commit the databases independently
+    public static String xadatasource;
+    
+    // Decision log of the distributed transactions (FedTransactionLog)
+    public static String xalog = "fdbs-xa.log";
+    
+    // Name of this FDBS in the ids of its distributed transactions, null to derive it from the host 
+    // name and the decision log (see FedXid)
+    public static String xanode;
+    
+    // Maximum number of pooled connections per database, 0 to open new connections for every FedConnection
+    public static int poolsize = 0;
+    
+    // Seconds after which an idle pooled connection is closed
+    public static int poolidle = 300;
+    
+    // Milliseconds to wait for a pooled connection if all of them are leased
+    public static int poolwait = 10000;
+    
     // Parser check
     public static boolean validate;
     
@@ -59,6 +97,25 @@ public class FedConfig {
             fetchsize = Integer.parseInt(props.getProperty("fetchsize") == null ? 
                                          "0" : props.getProperty("fetchsize").trim());
             
+            batchsize = Math.max(1, getIntProperty(props, "batchsize", 1000));
+            
+            prefetchsize    = Math.max(1, getIntProperty(props, "prefetchsize", 10000));
+            prefetchordered = Boolean.parseBoolean(props.getProperty("prefetchordered", "true").trim());
+            
+            joinstrategy = props.getProperty("joinstrategy", FedJoin.AUTO).trim().toUpperCase();
+            semijoinkeys = getIntProperty(props, "semijoinkeys", 1000);
+            roundtripbytes = Math.max(0, getIntProperty(props, "roundtripbytes", 100000));
+            
+            xadatasource = props.getProperty("xadatasource", "").trim();
+            xadatasource = xadatasource.isEmpty() ? null : xadatasource;
+            xalog = props.getProperty("xalog", "fdbs-xa.log").trim();
+            xanode = props.getProperty("xanode", "").trim();
+            xanode = xanode.isEmpty() ? null : xanode;
+            
+            poolsize = Math.max(0, getIntProperty(props, "poolsize", 0));
+            poolidle = Math.max(1, getIntProperty(props, "poolidle", 300));
+            poolwait = Math.max(0, getIntProperty(props, "poolwait", 10000));
+            
         } catch (IOException e) {
             System.out.println("[ERROR] Unable to locate the configuration file: " + PROPERTIES);
             System.exit(007); 
@@ -68,6 +125,18 @@ public class FedConfig {
         } 
     }
     
+    /**
+     * Return the value of an integer property or the default value if the property 
+     * is missing or not a number.
+     */
+    private static int getIntProperty (Properties props, String key, int default_value) {
+        try {
+            return props.getProperty(key) == null ? default_value : Integer.parseInt(props.getProperty(key).trim());
+        } catch (NumberFormatException e) {
+            return default_value;
+        }
+    }
+    
     /*   Getters & Setters   */
     public static String getDb1Name () {
         return db1 != null ? db1.substring(db1.lastIndexOf(":") + 1) : null;
@@ -81,6 +150,14 @@ public class FedConfig {
         return db3 != null ? db3.substring(db3.lastIndexOf(":") + 1) : null;
     }
     
+    public static String getDbName (int db) {
+        return db == 3 ? getDb3Name() : db == 2 ? getDb2Name() : getDb1Name();
+    }
+    
+    public static String getDb (int db) {
+        return db == 3 ? db3 : db == 2 ? db2 : db1;
+    }
+    
     public static String getUser () {
         return user;
     }
@@ -3,6 +3,14 @@ package fed.fdbs;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import javax.sql.XAConnection;
+import javax.sql.XADataSource;
+import javax.transaction.xa.XAResource;
 
 /**
  * This class contains three SQL Connection objects that hold the connections to three 
@@ -10,6 +18,13 @@ import java.sql.SQLException;
  * 
  * It provides a subject of the Connection objects to perform commits, rollbacks and
  * enable/disable the auto commits.
+ * 
+ * If an XADataSource is configured (FedConfig.xadatasource), the connections are obtained from XA
+ * connections and the transactions are committed on the three databases with a two-phase commit
+ * (FedTransaction). Otherwise every database commits its own transaction.
+ * 
+ * With connection pooling (FedConfig.poolsize > 0), the connections are leased from the 
+ * FedConnectionPool of each database and returned to it when the FedConnection is closed.
  *
  */
 public class FedConnection implements FedConnectionInterface {
@@ -18,6 +33,14 @@ public class FedConnection implements FedConnectionInterface {
     private Connection conn3;
     private FedStatement fstmt;
     
+    // Connections leased from the pools of the databases (index 1 to 3), null without pooling
+    private FedConnectionPool.Lease[] leases;
+    
+    // XA connections of the databases (index 1 to 3) and current distributed transaction, null without XA
+    private XAConnection[] xaconns;
+    private FedTransaction transaction;
+    private boolean autocommit = true;
+    
     
     /**
      * Create a FedConnection object to connect to the DBs with the default user
@@ -40,28 +63,140 @@ public class FedConnection implements FedConnectionInterface {
     public FedConnection (String username, String password) throws FedException {
         try {
             
-            FedLogger.trace("Connecting to DB(" + FedConfig.getDb1Name() + ")...");
-            conn1 = DriverManager.getConnection(FedConfig.getDb1(), username, password);
-            
-            FedLogger.trace("Connecting to DB(" + FedConfig.getDb2Name() + ")...");
-            conn2 = DriverManager.getConnection(FedConfig.getDb2(), username, password);
+            if (FedConfig.poolsize > 0) {
+                // Lease one connection from the pool of each database
+                leases = new FedConnectionPool.Lease[4];
+                
+                for (int db = 1; db <= 3; db++) {
+                    leases[db] = FedConnectionPool.getPool(db, username, password).lease();
+                }
+                
+                conn1 = leases[1].getConnection();
+                conn2 = leases[2].getConnection();
+                conn3 = leases[3].getConnection();
+                
+                if (leases[1].getXAConnection() != null) {
+                    xaconns = new XAConnection[] { null, leases[1].getXAConnection(), leases[2].getXAConnection(), 
+                                                   leases[3].getXAConnection() };
+                }
+            }
+            else if (FedConfig.xadatasource != null) {
+                // Connections taking part in distributed transactions
+                xaconns = new XAConnection[4];
+                
+                for (int db = 1; db <= 3; db++) {
+                    FedLogger.trace("Connecting to DB(" + FedConfig.getDbName(db) + ") with XA...");
+                    xaconns[db] = getXAConnection(FedConfig.getDb(db), username, password);
+                }
+                
+                conn1 = initSession(xaconns[1].getConnection());
+                conn2 = initSession(xaconns[2].getConnection());
+                conn3 = initSession(xaconns[3].getConnection());
+            }
+            else {
+                FedLogger.trace("Connecting to DB(" + FedConfig.getDb1Name() + ")...");
+                conn1 = initSession(DriverManager.getConnection(FedConfig.getDb1(), username, password));
+                
+                FedLogger.trace("Connecting to DB(" + FedConfig.getDb2Name() + ")...");
+                conn2 = initSession(DriverManager.getConnection(FedConfig.getDb2(), username, password));
+                
+                FedLogger.trace("Connecting to DB(" + FedConfig.getDb3Name() + ")...");
+                conn3 = initSession(DriverManager.getConnection(FedConfig.getDb3(), username, password));
+            }
             
-            FedLogger.trace("Connecting to DB(" + FedConfig.getDb3Name() + ")...");
-            conn3 = DriverManager.getConnection(FedConfig.getDb3(), username, password);
+            if (xaconns != null) {
+                XAResource[] resources = new XAResource[4];
+                
+                for (int db = 1; db <= 3; db++) {
+                    resources[db] = xaconns[db].getXAResource();
+                }
+                
+                // Complete the transactions interrupted during a previous commit
+                FedTransaction.recover(resources);
+                transaction = new FedTransaction(resources);
+            }
             
             fstmt = new FedStatement(conn1, conn2, conn3, this);
             
         } catch (SQLException e) {
+            abort();
             throw new FedException(e);
+        } catch (FedException | RuntimeException e) {
+            // Nobody can close a connection that wasn't created
+            abort();
+            throw e;
         }
     }
     
     
-    /* (non-Javadoc)
+    /**
+     * Prepare the session of a new connection: Oracle sorts strings by the NLS_SORT of the session, 
+     * which is linguistic for many languages (e.g. GERMAN), while the FDBS merges the sorted rows of 
+     * the databases in binary order (see FedOrder). Both must use the same order.
+     * 
+     * @param conn
+     * @return the connection
+     * @throws SQLException
+     */
+    static Connection initSession (Connection conn) throws SQLException {
+        if (conn.getMetaData().getDatabaseProductName().equalsIgnoreCase("Oracle")) {
+            Statement stmt = conn.createStatement();
+            
+            try {
+                stmt.execute("ALTER SESSION SET NLS_SORT = BINARY");
+            } finally {
+                stmt.close();
+            }
+        }
+        
+        return conn;
+    }
+    
+    /**
+     * Create an XA connection with the configured XADataSource (FedConfig.xadatasource).
+     * 
+     * @param url
+     * @param username
+     * @param password
+     * @return the XAConnection
+     * @throws FedException if the XADataSource class can't be used
+     * @throws SQLException
+     */
+    static XAConnection getXAConnection (String url, String username, String password) throws FedException, SQLException {
+        XADataSource source;
+        
+        try {
+            source = (XADataSource) Class.forName(FedConfig.xadatasource).getDeclaredConstructor().newInstance();
+            source.getClass().getMethod("setURL", String.class).invoke(source, url);
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new FedException("Invalid XADataSource " + FedConfig.xadatasource + ": " + e);
+        }
+        
+        return source.getXAConnection(username, password);
+    }
+    
+    
+    /**
+     * Enable or disable the auto commits. With XA, disabling them starts a distributed transaction 
+     * and enabling them commits the current one.
+     * 
      * @see fedjdbc.FedConnectionInterface#setAutoCommit(boolean)
      */
     @Override
     public void setAutoCommit (boolean autoCommit) throws FedException {
+        if (transaction != null) {
+            FedLogger.trace("Setting autoCommit to " + autoCommit);
+            
+            if (autoCommit && transaction.isActive()) {
+                transaction.commit();
+            }
+            else if (!autoCommit && !transaction.isActive()) {
+                transaction.begin();
+            }
+            this.autocommit = autoCommit;
+            return;
+        }
+        
         try {
             FedLogger.trace("Setting autoCommit to " + autoCommit);
             if (conn1 != null) conn1.setAutoCommit(autoCommit);
@@ -77,6 +212,10 @@ public class FedConnection implements FedConnectionInterface {
      */
     @Override
     public boolean getAutoCommit () throws FedException {
+        if (transaction != null) {
+            return autocommit;
+        }
+        
         try {
             if (conn1 != null) return conn1.getAutoCommit();
         } catch (SQLException e) {
@@ -85,19 +224,31 @@ public class FedConnection implements FedConnectionInterface {
         return false;
     }
 
-    /* (non-Javadoc)
+    /**
+     * Commit the current transaction. With XA, the databases are committed with a two-phase commit 
+     * and a new distributed transaction is started. Otherwise every database commits its own 
+     * transaction (concurrently).
+     * 
      * @see fedjdbc.FedConnectionInterface#commit()
      */
     @Override
     public void commit () throws FedException {
-        try {
-            FedLogger.trace("Making changes permanent to the databases...");
-            if (conn1 != null && !conn1.getAutoCommit()) conn1.commit();
-            if (conn2 != null && !conn2.getAutoCommit()) conn2.commit();
-            if (conn3 != null && !conn3.getAutoCommit()) conn3.commit();
-        } catch (SQLException e) {
-            throw new FedException(e);
+        FedLogger.trace("Making changes permanent to the databases...");
+        
+        if (transaction != null) {
+            if (transaction.isActive()) {
+                try {
+                    transaction.commit();
+                } finally {
+                    transaction.begin();
+                }
+            }
+            return;
         }
+        
+        execute(conn -> {
+            if (!conn.getAutoCommit()) conn.commit();
+        });
     }
 
     /* (non-Javadoc)
@@ -105,13 +256,49 @@ public class FedConnection implements FedConnectionInterface {
      */
     @Override
     public void rollback () throws FedException {
-        try {
-            FedLogger.trace("Undoing changes made during the current transaction...");
-            if (conn1 != null) conn1.rollback();
-            if (conn2 != null) conn2.rollback();
-            if (conn3 != null) conn3.rollback();
-        } catch (SQLException e) {
-            throw new FedException(e);
+        FedLogger.trace("Undoing changes made during the current transaction...");
+        
+        if (transaction != null) {
+            if (transaction.isActive()) {
+                try {
+                    transaction.rollback();
+                } finally {
+                    transaction.begin();
+                }
+            }
+            return;
+        }
+        
+        execute(conn -> conn.rollback());
+    }
+    
+    /**
+     * Suspend the distributed transaction (if any) to execute statements that can't be part of it, 
+     * e.g. CREATE TABLE.
+     * 
+     * @throws FedException
+     */
+    void suspendTransaction () throws FedException {
+        if (transaction != null) {
+            transaction.suspend();
+        }
+    }
+    
+    /**
+     * @return true if a distributed transaction (XA) is active
+     */
+    boolean isTransactionActive () {
+        return transaction != null && transaction.isActive();
+    }
+    
+    /**
+     * Resume the distributed transaction suspended by suspendTransaction.
+     * 
+     * @throws FedException
+     */
+    void resumeTransaction () throws FedException {
+        if (transaction != null) {
+            transaction.resume();
         }
     }
 
@@ -124,6 +311,15 @@ public class FedConnection implements FedConnectionInterface {
             if (fstmt != null) {
                 fstmt.close();
             }
+            if (transaction != null && transaction.isActive()) {
+                // Changes not committed are discarded
+                transaction.rollback();
+            }
+            if (leases != null) {
+                // The connections stay open in their pools
+                release();
+                return;
+            }
             if (conn1 != null) { 
                 FedLogger.trace("Closing DB(" + FedConfig.getDb1Name() + ") connection...");
                 conn1.close();
@@ -136,11 +332,89 @@ public class FedConnection implements FedConnectionInterface {
                 FedLogger.trace("Closing DB(" + FedConfig.getDb3Name() + ") connection...");
                 conn3.close();
             }
+            if (xaconns != null) {
+                for (int db = 1; db <= 3; db++) {
+                    xaconns[db].close();
+                }
+            }
         } catch (SQLException e) {
             throw new FedException(e);
         }
     }
 
+    /**
+     * Return the connections leased so far to their pools, or close the connections opened so far, 
+     * after the creation of the FedConnection failed.
+     */
+    private void abort () {
+        if (leases != null) {
+            release();
+            return;
+        }
+        
+        for (Connection conn : new Connection[] { conn1, conn2, conn3 }) {
+            try {
+                if (conn != null) {
+                    conn.close();
+                }
+            } catch (SQLException e) {
+                // The original error is reported
+            }
+        }
+        
+        for (int db = 1; xaconns != null && db <= 3; db++) {
+            try {
+                if (xaconns[db] != null) {
+                    xaconns[db].close();
+                }
+            } catch (SQLException e) {
+                // The original error is reported
+            }
+        }
+    }
+    
+    /**
+     * Return the leased connections to their pools.
+     */
+    private void release () {
+        for (int db = 1; db <= 3; db++) {
+            if (leases[db] != null) {
+                FedLogger.trace("Returning DB(" + FedConfig.getDbName(db) + ") connection to the pool...");
+                leases[db].release();
+                leases[db] = null;
+            }
+        }
+    }
+    
+    /**
+     * Create a FedPreparedStatement object to insert rows in batches into the databases.
+     * 
+     * @param sql
+     *          INSERT INTO table VALUES (?, ..., ?)
+     * @return a new FedPreparedStatement
+     * @throws FedException
+     */
+    public FedPreparedStatement prepareStatement (String sql) throws FedException {
+        return new FedPreparedStatement(conn1, conn2, conn3, this, sql);
+    }
+
+    /**
+     * Execute an operation concurrently on the connections of the three databases.
+     */
+    private void execute (ConnectionOperation operation) throws FedException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        
+        for (Connection conn : new Connection[] { conn1, conn2, conn3 }) {
+            if (conn != null) {
+                tasks.add(() -> {
+                    operation.apply(conn);
+                    return null;
+                });
+            }
+        }
+        FedExecutor.invokeAll(tasks);
+    }
+    
     /* (non-Javadoc)
      * @see fedjdbc.FedConnectionInterface#getStatement()
      */
@@ -148,5 +422,12 @@ public class FedConnection implements FedConnectionInterface {
     public FedStatement getStatement () {
         return fstmt;
     }
-
+    
+    
+    /**
+     * Operation on the connection of a database.
+     */
+    private interface ConnectionOperation {
+        void apply (Connection conn) throws SQLException;
+    }
 }
@@ -0,0 +1,361 @@
+package fed.fdbs;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.XAConnection;
+
+/**
+ * Pool of the connections to one database for one user, used by FedConnection when pooling is
+ * enabled (FedConfig.poolsize > 0). A FedConnection leases one connection from the pool of each
+ * database and returns them when it's closed.
+ *
+ * The pool holds at most FedConfig.poolsize connections. A connection is validated before it's
+ * leased, and connections idle for more than FedConfig.poolidle seconds are closed by a background
+ * thread. If every connection is leased, the caller waits up to FedConfig.poolwait milliseconds.
+ *
+ */
+public class FedConnectionPool {
+    // Seconds to wait for the validation of a connection
+    private static final int VALIDATION_TIMEOUT = 5;
+
+    // Pools by database and user
+    private static final Map<String, FedConnectionPool> pools = new ConcurrentHashMap<>();
+
+    // Closes the idle connections of all the pools
+    private static final ScheduledExecutorService EVICTOR = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "fdbs-pool-evictor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EVICTOR.scheduleWithFixedDelay(() -> {
+            for (FedConnectionPool pool : pools.values()) {
+                pool.evictIdle();
+            }
+        }, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private final int db;
+    private final String url;
+    private final String username;
+    private final String password;
+
+    // Idle connections, the most recently returned first
+    private final Deque<Lease> idle = new ArrayDeque<>();
+    private int open;
+
+    // Metrics
+    private long leased;
+    private long created;
+    private long closed;
+    private long invalid;
+    private long evicted;
+    private long waits;
+    private long wait_time;
+
+
+    /* Create an empty pool */
+    private FedConnectionPool (int db, String url, String username, String password) {
+        this.db       = db;
+        this.url      = url;
+        this.username = username;
+        this.password = password;
+    }
+
+
+    /**
+     * Return the pool of the connections to a database for a user, creating it if needed.
+     *
+     * @param db
+     *          1, 2 or 3
+     * @param username
+     * @param password
+     * @return the pool
+     */
+    public static FedConnectionPool getPool (int db, String username, String password) {
+        String url = FedConfig.getDb(db);
+        
+        return pools.computeIfAbsent(url + "|" + username + "|" + password,
+                                     key -> new FedConnectionPool(db, url, username, password));
+    }
+
+    /**
+     * @return the metrics of all the pools, one line per pool
+     */
+    public static List<String> getAllMetrics () {
+        List<String> metrics = new ArrayList<>();
+        
+        for (FedConnectionPool pool : pools.values()) {
+            metrics.add(pool.getMetrics());
+        }
+        
+        return metrics;
+    }
+
+    /**
+     * Close the idle connections of all the pools.
+     */
+    public static void closeAll () {
+        for (FedConnectionPool pool : pools.values()) {
+            pool.evict(0);
+        }
+    }
+
+
+    /**
+     * Lease a connection: the most recently used idle connection that is still valid, or a new one
+     * if the pool is not full.
+     *
+     * @return the leased connection
+     * @throws FedException if no connection is available within FedConfig.poolwait milliseconds or
+     *          a new connection can't be opened
+     */
+    public Lease lease () throws FedException {
+        long deadline = System.currentTimeMillis() + FedConfig.poolwait;
+        
+        while (true) {
+            Lease lease = null;
+            
+            synchronized (this) {
+                long start = System.currentTimeMillis();
+                boolean waited = false;
+                
+                while (idle.isEmpty() && open >= FedConfig.poolsize) {
+                    // Every connection is leased: wait until one is returned
+                    long remaining = deadline - System.currentTimeMillis();
+                    
+                    if (remaining <= 0) {
+                        throw new FedException("No connection to " + FedConfig.getDbName(db) + " available after "
+                                               + FedConfig.poolwait + " ms (pool size " + FedConfig.poolsize + ")");
+                    }
+                    try {
+                        waited = true;
+                        wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new FedException("Waiting for a connection to " + FedConfig.getDbName(db) + " interrupted");
+                    }
+                }
+                
+                if (waited) {
+                    waits++;
+                    wait_time += System.currentTimeMillis() - start;
+                }
+                
+                lease = idle.pollFirst();
+                open += lease == null ? 1 : 0;
+            }
+            
+            if (lease == null) {
+                return open();
+            }
+            
+            // Validate the idle connection outside the lock
+            if (isValid(lease)) {
+                synchronized (this) {
+                    leased++;
+                }
+                return lease;
+            }
+            
+            synchronized (this) {
+                invalid++;
+            }
+            discard(lease);
+        }
+    }
+
+    /**
+     * Return a leased connection to the pool. Its uncommitted changes are rolled back and auto commit
+     * is enabled again. A connection that can't be reset is closed.
+     *
+     * @param lease
+     */
+    public void release (Lease lease) {
+        try {
+            Connection conn = lease.getConnection();
+            
+            if (lease.getXAConnection() == null && !conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(lease);
+            return;
+        }
+        
+        synchronized (this) {
+            lease.idle_since = System.currentTimeMillis();
+            idle.addFirst(lease);
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return the metrics of the pool, e.g. for the log
+     */
+    public synchronized String getMetrics () {
+        return "Pool " + FedConfig.getDbName(db) + " (" + username + "): " + open + " open, " + idle.size() + " idle, "
+               + leased + " leased, " + created + " created, " + closed + " closed (" + invalid + " invalid, "
+               + evicted + " evicted), " + waits + " waits (" + wait_time + " ms)";
+    }
+
+    /*   Getters   */
+    public synchronized int getOpen () {
+        return open;
+    }
+
+    public synchronized int getIdle () {
+        return idle.size();
+    }
+
+    public synchronized long getLeased () {
+        return leased;
+    }
+
+    public synchronized long getCreated () {
+        return created;
+    }
+
+    public synchronized long getEvicted () {
+        return evicted;
+    }
+
+
+    /* Open a new connection (the pool already counts it as open) */
+    private Lease open () throws FedException {
+        boolean opened = false;
+        
+        try {
+            FedLogger.trace("Connecting to DB(" + FedConfig.getDbName(db) + ")" + (FedConfig.xadatasource != null ? " with XA" : "") + "...");
+            
+            Lease lease;
+            
+            if (FedConfig.xadatasource != null) {
+                XAConnection xaconn = FedConnection.getXAConnection(url, username, password);
+                lease = new Lease(this, FedConnection.initSession(xaconn.getConnection()), xaconn);
+            }
+            else {
+                lease = new Lease(this, FedConnection.initSession(DriverManager.getConnection(url, username, password)), null);
+            }
+            
+            opened = true;
+            return lease;
+        } catch (SQLException e) {
+            throw new FedException(e);
+        } finally {
+            synchronized (this) {
+                if (opened) {
+                    created++;
+                    leased++;
+                }
+                else {
+                    open--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+    
+    /* Close idle connections unused for more than FedConfig.poolidle seconds */
+    private void evictIdle () {
+        evict(FedConfig.poolidle * 1000L);
+    }
+
+    /* Close idle connections unused for more than the given time (milliseconds) */
+    private void evict (long max_idle) {
+        List<Lease> expired = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        
+        synchronized (this) {
+            Iterator<Lease> it = idle.descendingIterator();
+            
+            while (it.hasNext()) {
+                Lease lease = it.next();
+                
+                if (now - lease.idle_since >= max_idle) {
+                    it.remove();
+                    expired.add(lease);
+                    evicted++;
+                }
+            }
+        }
+        
+        for (Lease lease : expired) {
+            discard(lease);
+        }
+    }
+
+    /* Close a connection and remove it from the pool */
+    private void discard (Lease lease) {
+        try {
+            if (lease.getXAConnection() != null) {
+                lease.getXAConnection().close();
+            }
+            else {
+                lease.getConnection().close();
+            }
+        } catch (SQLException e) {
+            // The connection is unusable anyway
+        }
+        
+        synchronized (this) {
+            open--;
+            closed++;
+            notifyAll();
+        }
+    }
+
+    private static boolean isValid (Lease lease) {
+        try {
+            return lease.getConnection().isValid(VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Connection leased from the pool: a JDBC connection and, with XA, the XA connection it belongs to.
+     */
+    public static class Lease {
+        private final FedConnectionPool pool;
+        private final Connection conn;
+        private final XAConnection xaconn;
+        private long idle_since;
+        
+        Lease (FedConnectionPool pool, Connection conn, XAConnection xaconn) {
+            this.pool   = pool;
+            this.conn   = conn;
+            this.xaconn = xaconn;
+        }
+        
+        public Connection getConnection () {
+            return conn;
+        }
+        
+        public XAConnection getXAConnection () {
+            return xaconn;
+        }
+        
+        /**
+         * Return the connection to its pool.
+         */
+        public void release () {
+            pool.release(this);
+        }
+    }
+}
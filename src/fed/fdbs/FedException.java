@@ -19,4 +19,13 @@ public class FedException extends Exception {
 	public FedException (SQLException e) {
         super(e.getErrorCode() + ": " + e.getMessage().trim());
     }
+	
+	/**
+	 * Create a FedException object for an error detected by the FDBS itself.
+	 * 
+	 * @param message the detail message
+	 */
+	public FedException (String message) {
+	    super(message);
+	}
 }
@@ -0,0 +1,152 @@
+package fed.fdbs;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * It runs the work sent to the databases concurrently on a pool of daemon threads shared by all 
+ * the FedStatement objects. Errors of the tasks are returned as FedException objects.
+ *
+ */
+public class FedExecutor {
+    
+    private static final ExecutorService POOL = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public Thread newThread (Runnable task) {
+            Thread thread = new Thread(task, "fdbs-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+    
+    
+    /**
+     * Submit a task to be executed concurrently.
+     * 
+     * @param task
+     * @return a Future representing the pending result of the task
+     */
+    public static <T> Future<T> submit (Callable<T> task) {
+        return POOL.submit(task);
+    }
+    
+    /**
+     * Wait for a task to complete and return its result.
+     * 
+     * @param future
+     * @return the result of the task
+     * @throws FedException if the task failed or the current thread was interrupted
+     */
+    public static <T> T get (Future<T> future) throws FedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            
+            if (cause instanceof FedException) {
+                throw (FedException) cause;
+            }
+            if (cause instanceof SQLException) {
+                throw new FedException((SQLException) cause);
+            }
+            throw new FedException("FDBS task failed: " + cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FedException("FDBS task interrupted");
+        }
+    }
+    
+    /**
+     * Execute the tasks concurrently and wait until all of them are completed. If a task fails, the 
+     * ResultSet objects returned by the other tasks are closed, because nobody will read them.
+     * 
+     * @param tasks
+     * @return the results of the tasks in the same order
+     * @throws FedException the error of the first failed task (in the order of the list)
+     */
+    public static <T> List<T> invokeAll (List<Callable<T>> tasks) throws FedException {
+        List<Future<T>> futures = new ArrayList<>();
+        List<T> results = new ArrayList<>();
+        FedException error = null;
+        FedException last_error = null;
+        T last = null;
+        
+        if (tasks.isEmpty()) {
+            return results;
+        }
+        
+        for (int i = 0; i < tasks.size() - 1; i++) {
+            futures.add(POOL.submit(tasks.get(i)));
+        }
+        
+        try {
+            // The last task is executed by the current thread
+            last = call(tasks.get(tasks.size() - 1));
+        } catch (FedException e) {
+            last_error = e;
+        }
+        
+        for (Future<T> future : futures) {
+            try {
+                results.add(get(future));
+            } catch (FedException e) {
+                results.add(null);
+                error = error == null ? e : error;
+            }
+        }
+        results.add(last);
+        error = error == null ? last_error : error;
+        
+        if (error != null) {
+            for (T result : results) {
+                close(result);
+            }
+            throw error;
+        }
+        
+        return results;
+    }
+    
+    /**
+     * Close the ResultSet objects returned by a task (a ResultSet or an array of them).
+     */
+    private static void close (Object result) {
+        Object[] values = result instanceof ResultSet[] ? (Object[]) result : new Object[] { result };
+        
+        for (Object value : values) {
+            try {
+                if (value instanceof ResultSet) {
+                    ((ResultSet) value).close();
+                }
+            } catch (SQLException e) {
+                // The error of the failed task is reported
+            }
+        }
+    }
+    
+    /**
+     * Execute a task in the current thread.
+     */
+    private static <T> T call (Callable<T> task) throws FedException {
+        try {
+            return task.call();
+        } catch (FedException e) {
+            throw e;
+        } catch (SQLException e) {
+            throw new FedException(e);
+        } catch (Exception e) {
+            throw new FedException("FDBS task failed: " + e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package fed.fdbs;
+
+import java.util.Arrays;
+
+/**
+ * Hash table of groups used to merge the partial results of aggregate functions. Every group holds 
+ * one accumulator per aggregate function as a primitive long (no boxing). The groups are numbered 
+ * in the order they were added and their keys and accumulators are stored in arrays indexed by 
+ * that number. The hash index uses open addressing with linear probing.
+ * 
+ * Subclasses define the type of the keys (see FedObjectGroupTable and FedLongGroupTable). 
+ * The NULL key is kept apart from the hash index (see nullGroup).
+ *
+ */
+public abstract class FedGroupTable {
+    private final FedAggregate[] functions;
+    private final int width;
+    private long[] values;
+    private boolean[] defined;
+    private int null_group = -1;
+    
+    // Number of groups
+    protected int size;
+    
+    // Hash index: group number + 1 of each slot, 0 if the slot is empty
+    protected int[] slots;
+    protected int mask;
+    
+    
+    /**
+     * Create a table for the given aggregate functions.
+     * 
+     * @param functions
+     *          the aggregate function of each accumulator
+     * @param expected
+     *          the estimated number of groups
+     */
+    protected FedGroupTable (FedAggregate[] functions, int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, Math.min(expected, 1 << 28)) * 2 - 1) << 1;
+        
+        this.functions = functions;
+        this.width   = functions.length;
+        this.slots   = new int[capacity];
+        this.mask    = capacity - 1;
+        this.values  = new long[(capacity / 2) * width];
+        this.defined = new boolean[(capacity / 2) * width];
+    }
+    
+    
+    /**
+     * Return the number of the group with the NULL key, adding it if it doesn't exist.
+     * 
+     * @return the number of the group
+     */
+    public int nullGroup () {
+        if (null_group < 0) {
+            null_group = newGroup();
+        }
+        
+        return null_group;
+    }
+    
+    /**
+     * Merge a partial result into an accumulator of a group.
+     * 
+     * @param group
+     * @param index
+     *          the index of the accumulator (starting at 0)
+     * @param value
+     */
+    public void accumulate (int group, int index, long value) {
+        int i = group * width + index;
+        
+        values[i]  = defined[i] ? functions[index].merge(values[i], value) : value;
+        defined[i] = true;
+    }
+    
+    /**
+     * @return the number of groups
+     */
+    public int size () {
+        return size;
+    }
+    
+    /**
+     * @return the value of an accumulator of a group
+     */
+    public long getValue (int group, int index) {
+        return values[group * width + index];
+    }
+    
+    /**
+     * @return true if the accumulator of a group has no value (only NULL partial results were merged)
+     */
+    public boolean isNull (int group, int index) {
+        return !defined[group * width + index];
+    }
+    
+    /**
+     * @return true if the group has the NULL key
+     */
+    public boolean isNullGroup (int group) {
+        return group == null_group;
+    }
+    
+    /**
+     * @return the key of a group (null for the NULL group)
+     */
+    public abstract Object getKey (int group);
+    
+    
+    /**
+     * Add a new group and return its number. The hash index is not modified.
+     */
+    protected int newGroup () {
+        if ((size + 1) * width > values.length) {
+            values  = Arrays.copyOf(values, values.length * 2);
+            defined = Arrays.copyOf(defined, defined.length * 2);
+            growKeys(values.length / width);
+        }
+        
+        return size++;
+    }
+    
+    /**
+     * Double the size of the hash index if it's more than half full. 
+     * 
+     * @return true if the index was rebuilt
+     */
+    protected boolean growIndex () {
+        if (size * 2 < slots.length) {
+            return false;
+        }
+        
+        slots = new int[slots.length * 2];
+        mask  = slots.length - 1;
+        
+        for (int group = 0; group < size; group++) {
+            if (group != null_group) {
+                int slot = hash(group) & mask;
+                
+                while (slots[slot] != 0) slot = (slot + 1) & mask;
+                slots[slot] = group + 1;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Grow the arrays of the keys to the given number of groups.
+     */
+    protected abstract void growKeys (int capacity);
+    
+    /**
+     * @return the hash code of the key of a group
+     */
+    protected abstract int hash (int group);
+    
+    
+    /* Spread the bits of a hash code */
+    protected static int mix (long hash) {
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
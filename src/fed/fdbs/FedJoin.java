@@ -0,0 +1,650 @@
+package fed.fdbs;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Federated hash join of two tables (SELECT ... FROM table1, table2 WHERE (table1.x = table2.y) ...).
+ * 
+ * The smaller table (build input) is read from all its databases concurrently into a hash table on 
+ * the join column. The other table (probe input) is then read from all its databases concurrently 
+ * and every row is joined with the matching rows of the hash table. The conjuncts of the condition 
+ * that only use columns of one table are evaluated by the databases, the others (e.g. comparisons 
+ * between columns of both tables) are evaluated on the joined rows, and the selected columns are 
+ * returned in a FedMemoryResultSet. No data is written to the databases.
+ *
+ */
+public class FedJoin {
+    private final Statement[] stmt;
+    private final String[] tables;
+    private final FedPartition[] partitions;
+    private final boolean[][] dbs;
+    private final FedPredicate predicate;
+    private final List<String> select;
+    
+    // Join column of each table (qualified, upper case)
+    private final String[] keys = new String[2];
+    
+    // Conjuncts of the condition that only use columns of each table (SQL, null if none)
+    private final String[] filters = new String[2];
+    
+    // Conjuncts of the condition evaluated on the joined rows (not evaluated by the databases)
+    private final List<FedPredicate> residuals = new ArrayList<>();
+    
+    // Columns of each table used by the query (SQL select list, * if all are needed)
+    private final String[] projections = new String[2];
+    
+    // Can the select list and the clauses of the query be evaluated by FedJoin?
+    private final boolean supported;
+    
+    // Join strategies (FedConfig.joinstrategy)
+    public static final String AUTO      = "AUTO";
+    public static final String HASH      = "HASH";
+    public static final String SEMIJOIN  = "SEMIJOIN";
+    public static final String BROADCAST = "BROADCAST";
+    public static final String TEMPTABLE = "TEMPTABLE";
+    
+    // Maximum number of values of an IN list (Oracle)
+    private static final int IN_LIST_SIZE = 1000;
+    
+    
+    /**
+     * Create a FedJoin object for a query joining two tables.
+     * 
+     * @param stmt
+     *          the Statement objects of the databases (index 1 to 3)
+     * @param sql
+     *          the query
+     * @param table1
+     * @param partition1
+     *          the partitioning of table1 or null if it's only stored in db1
+     * @param table2
+     * @param partition2
+     *          the partitioning of table2 or null if it's only stored in db1
+     */
+    public FedJoin (Statement[] stmt, String sql, String table1, FedPartition partition1, 
+                                                  String table2, FedPartition partition2) {
+        String SQL = sql.toUpperCase();
+        
+        this.stmt = stmt;
+        this.tables = new String[] { table1, table2 };
+        this.partitions = new FedPartition[] { partition1, partition2 };
+        this.dbs = new boolean[][] { getDatabases(partition1), getDatabases(partition2) };
+        this.predicate = FedPredicate.fromStatement(sql);
+        this.select = new ArrayList<>();
+        
+        for (String column : SQL.substring(SQL.indexOf("SELECT") + 6, SQL.indexOf(" FROM ")).split(",")) {
+            select.add(column.trim());
+        }
+        
+        // Look for an equality of a column of each table among the conjuncts of the condition
+        FedPredicate equijoin = null;
+        
+        for (FedPredicate conjunct : predicate != null ? predicate.getConjuncts() : new ArrayList<FedPredicate>()) {
+            if (keys[0] == null && conjunct.isComparison() && conjunct.getOperator().equals("=")) {
+                String operand1 = conjunct.getOperand1().toUpperCase();
+                String operand2 = conjunct.getOperand2().toUpperCase();
+                
+                if (operand1.startsWith(table1 + ".") && operand2.startsWith(table2 + ".")) {
+                    keys[0] = operand1;
+                    keys[1] = operand2;
+                    equijoin = conjunct;
+                }
+                else if (operand1.startsWith(table2 + ".") && operand2.startsWith(table1 + ".")) {
+                    keys[0] = operand2;
+                    keys[1] = operand1;
+                    equijoin = conjunct;
+                }
+            }
+        }
+        
+        // Only lists of columns without GROUP BY, HAVING or ORDER BY are joined in memory
+        boolean plain = !SQL.contains(" GROUP BY ") && !SQL.contains(" HAVING ") && !SQL.contains(" ORDER BY ");
+        
+        for (String column : select) {
+            plain = plain && (column.equals("*") && select.size() == 1 || FedPredicate.isColumn(column) && !column.contains("("));
+        }
+        supported = plain;
+        
+        // Columns needed from each table: selected columns, join columns and columns of the condition
+        List<String> used = new ArrayList<>(select);
+        used.addAll(predicate != null ? predicate.getColumns() : new ArrayList<String>());
+        
+        for (int t = 0; t <= 1; t++) {
+            Set<String> needed = new LinkedHashSet<>();
+            
+            for (String column : used) {
+                if (column.equals("*") || !column.contains(".")) {
+                    // Not qualified columns can belong to any table
+                    needed = null;
+                    break;
+                }
+                if (column.startsWith(tables[t] + ".")) {
+                    needed.add(column.substring(tables[t].length() + 1));
+                }
+            }
+            projections[t] = needed == null || needed.isEmpty() ? "*" : String.join(", ", needed);
+        }
+        
+        // Look for the conjuncts that can be evaluated on a single table
+        for (FedPredicate conjunct : predicate != null ? predicate.getConjuncts() : new ArrayList<FedPredicate>()) {
+            boolean pushed = false;
+            
+            for (int t = 0; t <= 1; t++) {
+                boolean local = !conjunct.getColumns().isEmpty();
+                
+                for (String column : conjunct.getColumns()) {
+                    local = local && column.startsWith(tables[t] + ".");
+                }
+                if (local) {
+                    filters[t] = (filters[t] == null ? "" : filters[t] + " AND ") + "(" + conjunct + ")";
+                    pushed = true;
+                }
+            }
+            
+            // The equality of the join columns is satisfied by the hash table lookup
+            if (!pushed && conjunct != equijoin) {
+                residuals.add(conjunct);
+            }
+        }
+    }
+    
+    
+    /**
+     * @return true if the query can be executed as a hash join, i.e. its condition could be parsed and 
+     *          contains an equality between a column of each table, and it only selects columns
+     */
+    public boolean isHashJoin () {
+        return keys[0] != null && supported;
+    }
+    
+    /**
+     * Return the conjuncts of the condition of the query that only use columns of a table, to 
+     * restrict the rows read from that table.
+     * 
+     * @param table
+     * @return the condition (SQL) or null if there is none
+     */
+    public String getFilter (String table) {
+        return table.equals(tables[0]) ? filters[0] : table.equals(tables[1]) ? filters[1] : null;
+    }
+    
+    /**
+     * @param table
+     * @return the join column of a table (qualified) or null if the query has no equi-join condition
+     */
+    public String getKey (String table) {
+        return table.equals(tables[0]) ? keys[0] : table.equals(tables[1]) ? keys[1] : null;
+    }
+    
+    /**
+     * The join is co-located if both tables are partitioned with the same boundaries and the condition 
+     * contains an equality between their partitioning columns: all the matching rows are stored on the 
+     * same database, so the query can be executed locally on each database.
+     * 
+     * @return true if the join is co-located
+     */
+    public boolean isColocated () {
+        FedPartition p1 = partitions[0];
+        FedPartition p2 = partitions[1];
+        
+        if (p1 == null || p2 == null || predicate == null || p1.getLeft() != p2.getLeft() 
+                                                         || !Objects.equals(p1.getRight(), p2.getRight())) {
+            return false;
+        }
+        
+        String column1 = tables[0] + "." + p1.getColumn();
+        String column2 = tables[1] + "." + p2.getColumn();
+        
+        for (FedPredicate conjunct : predicate.getConjuncts()) {
+            if (conjunct.isComparison() && conjunct.getOperator().equals("=")) {
+                String operand1 = conjunct.getOperand1().toUpperCase();
+                String operand2 = conjunct.getOperand2().toUpperCase();
+                
+                if (operand1.equals(column1) && operand2.equals(column2) 
+                        || operand1.equals(column2) && operand2.equals(column1)) {
+                    return true;
+                }
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * Return the databases on which a co-located join has to be executed: those that can hold rows 
+     * of both tables satisfying the condition.
+     * 
+     * @return an array where the element i (1, 2 or 3) is true if the join has to be executed on database i.
+     *          If no database can hold joined rows, only db1 is set.
+     */
+    public boolean[] getColocatedDatabases () {
+        boolean[] dbs1 = predicate.getDatabases(partitions[0]);
+        boolean[] dbs2 = predicate.getDatabases(partitions[1]);
+        boolean[] dbs  = new boolean[4];
+        
+        for (int db = 1; db <= 3; db++) {
+            dbs[db] = dbs1[db] && dbs2[db];
+        }
+        if (!dbs[1] && !dbs[2] && !dbs[3]) {
+            dbs[1] = true;
+        }
+        
+        return dbs;
+    }
+    
+    /**
+     * Execute the join as a hash join or a semi-join (the strategy is chosen by the FedPlanner):
+     * 
+     * Hash join: the build table is read into a hash table and the other table is read and probed 
+     * against it.
+     * Semi-join: the rows of the build table satisfying its own conditions are read first, and only 
+     * the rows of the other table whose join column is in the list of their keys (IN list) are read.
+     * 
+     * @param table
+     *          the build table, usually the one with less qualifying rows
+     * @param semijoin
+     *          true to execute a semi-join
+     * @return the joined rows
+     * @throws FedException
+     */
+    public FedMemoryResultSet execute (String table, boolean semijoin) throws FedException {
+        int build = table.equals(tables[1]) ? 1 : 0;
+        int probe = 1 - build;
+        
+        // Build phase
+        List<Scan> scans = scan(build, null, getConditions(build, filters[build]));
+        Scan first = scans.get(0);
+        Map<Object, List<Object[]>> hash_table = new HashMap<>();
+        int build_key = first.indexOf(keys[build]);
+        
+        for (Scan scan : scans) {
+            for (Object[] row : scan.rows) {
+                Object key = getKey(row[build_key]);
+                
+                if (key != null) {
+                    List<Object[]> matches = hash_table.get(key);
+                    
+                    if (matches == null) {
+                        matches = new ArrayList<>(1);
+                        hash_table.put(key, matches);
+                    }
+                    matches.add(row);
+                }
+            }
+        }
+        
+        // Probe phase
+        String[] conditions;
+        
+        if (semijoin) {
+            FedLogger.trace("Semi-join: reducing " + tables[probe] + " with " + hash_table.size() + " keys of " 
+                            + tables[build]);
+            conditions = getSemiJoinConditions(probe, hash_table.keySet());
+        }
+        else {
+            FedLogger.trace("Hash join: building on " + tables[build] + ", probing " + tables[probe]);
+            conditions = getConditions(probe, filters[probe]);
+        }
+        
+        scans = scan(probe, new Probe(build, first, hash_table), conditions);
+        
+        Scan result = scans.get(0);
+        for (int i = 1; i < scans.size(); i++) {
+            result.rows.addAll(scans.get(i).rows);
+        }
+        
+        return new FedMemoryResultSet(result.names, result.types, result.rows);
+    }
+    
+    
+    /**
+     * Read the used columns of a table from its databases concurrently. If a probe is given, the rows 
+     * are joined while they are read and the joined rows are returned instead.
+     * 
+     * @param table
+     *          0 or 1
+     * @param probe
+     * @param conditions
+     *          the condition of the query on each database (index 1 to 3): null if the database 
+     *          is not queried, an empty string to read all the rows
+     * @return one Scan per queried database
+     */
+    private List<Scan> scan (int table, Probe probe, String[] conditions) throws FedException {
+        List<Callable<Scan>> tasks = new ArrayList<>();
+        
+        for (int db = 1; db <= 3; db++) {
+            if (conditions[db] != null) {
+                final Statement st = stmt[db];
+                final String query = "SELECT " + projections[table] + " FROM " + tables[table] 
+                                     + (conditions[db].isEmpty() ? "" : " WHERE " + conditions[db]);
+                
+                tasks.add(() -> {
+                    ResultSet rs = st.executeQuery(query);
+                    Scan scan = new Scan(tables[table], rs.getMetaData());
+                    
+                    if (probe != null) {
+                        scan = probe.join(scan, rs);
+                    }
+                    else {
+                        while (rs.next()) {
+                            scan.rows.add(scan.read(rs));
+                        }
+                    }
+                    rs.close();
+                    
+                    return scan;
+                });
+            }
+        }
+        
+        return FedExecutor.invokeAll(tasks);
+    }
+    
+    /**
+     * Return the same condition for all the databases of a table.
+     * 
+     * @param table
+     *          0 or 1
+     * @param condition
+     *          the condition or null to read all the rows
+     * @return the condition of each database (index 1 to 3), null for the databases without rows of the table
+     */
+    private String[] getConditions (int table, String condition) {
+        String[] conditions = new String[4];
+        
+        for (int db = 1; db <= 3; db++) {
+            conditions[db] = dbs[table][db] ? (condition != null ? condition : "") : null;
+        }
+        
+        return conditions;
+    }
+    
+    /**
+     * Return the conditions restricting the join column of a table to the given keys, together with 
+     * the own conditions of the table. If the join column is the partitioning column, each database 
+     * only receives the keys it can hold.
+     * 
+     * @param table
+     *          0 or 1
+     * @param values
+     *          the keys of the other table
+     * @return the condition of each database (index 1 to 3), null for the databases that don't need to be read
+     */
+    private String[] getSemiJoinConditions (int table, Collection<Object> values) {
+        FedPartition partition = partitions[table];
+        boolean routed = partition != null && keys[table].equals(tables[table] + "." + partition.getColumn());
+        List<List<String>> literals = new ArrayList<>();
+        String[] conditions = new String[4];
+        
+        for (int db = 0; db <= 3; db++) {
+            literals.add(new ArrayList<String>());
+        }
+        
+        for (Object value : values) {
+            String literal = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() 
+                                                         : "'" + value.toString().replace("'", "''") + "'";
+            
+            for (int db = 1; db <= 3; db++) {
+                if (dbs[table][db] && (!routed || !(value instanceof BigDecimal) 
+                                                || partition.getDatabase((BigDecimal) value) == db)) {
+                    literals.get(db).add(literal);
+                }
+            }
+        }
+        
+        for (int db = 1; db <= 3; db++) {
+            List<String> list = literals.get(db);
+            String condition = "";
+            
+            for (int i = 0; i < list.size(); i += IN_LIST_SIZE) {
+                condition += (i > 0 ? " OR " : "") + keys[table] + " IN (" 
+                             + String.join(", ", list.subList(i, Math.min(i + IN_LIST_SIZE, list.size()))) + ")";
+            }
+            condition = list.size() > IN_LIST_SIZE ? "(" + condition + ")" : condition;
+            conditions[db] = list.isEmpty() ? null : filters[table] != null ? filters[table] + " AND " + condition : condition;
+        }
+        
+        if (conditions[1] == null && conditions[2] == null && conditions[3] == null) {
+            // No keys: read nothing from the first database to get the columns of the table
+            conditions[dbs[table][1] ? 1 : 2] = "1 = 0";
+        }
+        
+        return conditions;
+    }
+    
+    
+    /* Databases holding rows of a table */
+    private static boolean[] getDatabases (FedPartition partition) {
+        return partition != null ? partition.getDatabases() : new boolean[] { false, true, false, false };
+    }
+    
+    /* Value used as key of the hash table (numbers are normalized, e.g. 1.0 = 1) */
+    private static Object getKey (Object value) {
+        return value instanceof BigDecimal ? ((BigDecimal) value).stripTrailingZeros() : value;
+    }
+    
+    /* Numeric key of a value compared with a number (strings are converted like in Oracle), null if it's not a number */
+    private static Object getNumericKey (Object value) {
+        BigDecimal number = value instanceof BigDecimal ? (BigDecimal) value 
+                          : value != null ? FedPredicate.toNumber(value.toString().trim()) : null;
+        
+        return number != null ? number.stripTrailingZeros() : null;
+    }
+    
+    
+    /**
+     * Columns and rows of a table read from a database.
+     */
+    private static class Scan {
+        final String table;
+        final String[] names;
+        final int[] types;
+        final List<Object[]> rows = new ArrayList<>();
+        
+        Scan (String table, ResultSetMetaData meta) throws SQLException {
+            this.table = table;
+            this.names = new String[meta.getColumnCount()];
+            this.types = new int[names.length];
+            
+            for (int i = 0; i < names.length; i++) {
+                names[i] = meta.getColumnName(i + 1).toUpperCase();
+                types[i] = meta.getColumnType(i + 1);
+            }
+        }
+        
+        /* Create a scan for the joined rows */
+        Scan (String[] names, int[] types) {
+            this.table = null;
+            this.names = names;
+            this.types = types;
+        }
+        
+        /* Read the current row of a ResultSet: numbers as BigDecimal, dates as Timestamp, everything else as String */
+        Object[] read (ResultSet rs) throws SQLException {
+            Object[] row = new Object[names.length];
+            
+            for (int i = 0; i < row.length; i++) {
+                row[i] = isNumeric(types[i]) ? rs.getBigDecimal(i + 1) 
+                       : isTemporal(types[i]) ? rs.getTimestamp(i + 1) : rs.getString(i + 1);
+            }
+            
+            return row;
+        }
+        
+        /* Index of a qualified column, -1 if it doesn't exist */
+        int indexOf (String column) {
+            for (int i = 0; i < names.length; i++) {
+                if (column.equals(table + "." + names[i])) return i;
+            }
+            return -1;
+        }
+        
+        static boolean isNumeric (int type) {
+            switch (type) {
+                case Types.NUMERIC: case Types.DECIMAL: case Types.INTEGER: case Types.BIGINT: 
+                case Types.SMALLINT: case Types.TINYINT: case Types.FLOAT: case Types.DOUBLE: case Types.REAL:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        
+        static boolean isTemporal (int type) {
+            return type == Types.DATE || type == Types.TIMESTAMP || type == Types.TIME;
+        }
+    }
+    
+    
+    /**
+     * Probe phase of the join: it joins the rows of the probe table with the hash table, evaluates 
+     * the condition on the joined rows and keeps the selected columns.
+     */
+    private class Probe {
+        final int build;
+        final Scan build_scan;
+        final Map<Object, List<Object[]>> hash_table;
+        
+        // Hash table on the build keys converted to numbers, if the probe join column is numeric and the build one isn't
+        private Map<Object, List<Object[]>> numeric_table;
+        
+        Probe (int build, Scan build_scan, Map<Object, List<Object[]>> hash_table) {
+            this.build = build;
+            this.build_scan = build_scan;
+            this.hash_table = hash_table;
+        }
+        
+        /* Join the rows of a probe ResultSet (called concurrently, one call per database) */
+        Scan join (Scan probe_scan, ResultSet rs) throws SQLException, FedException {
+            Scan[] scan = build == 0 ? new Scan[] { build_scan, probe_scan } : new Scan[] { probe_scan, build_scan };
+            int width = scan[0].names.length;
+            
+            // Position of every column in the joined rows (table1 columns followed by table2 columns)
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = new ArrayList<>();
+            
+            for (int t = 0; t <= 1; t++) {
+                for (int i = 0; i < scan[t].names.length; i++) {
+                    int index = t * width + i;
+                    
+                    columns.put(tables[t] + "." + scan[t].names[i], index);
+                    names.add(scan[t].names[i]);
+                }
+            }
+            for (int i = 0; i < names.size(); i++) {
+                // Not qualified column names, if they are unique
+                if (names.indexOf(names.get(i)) == names.lastIndexOf(names.get(i))) {
+                    columns.put(names.get(i), i);
+                }
+            }
+            
+            for (String column : predicate != null ? predicate.getColumns() : new ArrayList<String>()) {
+                if (!columns.containsKey(column.toUpperCase())) {
+                    throw new FedException("Invalid column " + column);
+                }
+            }
+            
+            // Selected columns
+            int[] projection = new int[select.get(0).equals("*") ? names.size() : select.size()];
+            
+            for (int i = 0; i < projection.length; i++) {
+                Integer index = select.get(0).equals("*") ? Integer.valueOf(i) : columns.get(select.get(i));
+                
+                if (index == null) {
+                    throw new FedException("Invalid column " + select.get(i));
+                }
+                projection[i] = index;
+            }
+            
+            String[] result_names = new String[projection.length];
+            int[] result_types = new int[projection.length];
+            
+            for (int i = 0; i < projection.length; i++) {
+                int t = projection[i] < width ? 0 : 1;
+                result_names[i] = names.get(projection[i]);
+                result_types[i] = scan[t].types[projection[i] - t * width];
+            }
+            
+            Scan joined = new Scan(result_names, result_types);
+            int probe_key = probe_scan.indexOf(keys[1 - build]);
+            boolean numeric_build = Scan.isNumeric(build_scan.types[build_scan.indexOf(keys[build])]);
+            boolean numeric_probe = Scan.isNumeric(probe_scan.types[probe_key]);
+            
+            // A number joined with a string is compared as a number
+            Map<Object, List<Object[]>> table = numeric_probe && !numeric_build ? getNumericTable() : hash_table;
+            
+            while (rs.next()) {
+                Object[] row = probe_scan.read(rs);
+                Object key = numeric_build && !numeric_probe ? getNumericKey(row[probe_key]) : getKey(row[probe_key]);
+                List<Object[]> matches = key != null ? table.get(key) : null;
+                
+                for (int m = 0; matches != null && m < matches.size(); m++) {
+                    Object[] left  = build == 0 ? matches.get(m) : row;
+                    Object[] right = build == 0 ? row : matches.get(m);
+                    Object[] full  = new Object[left.length + right.length];
+                    
+                    System.arraycopy(left, 0, full, 0, left.length);
+                    System.arraycopy(right, 0, full, left.length, right.length);
+                    
+                    if (evaluate(columns, full)) {
+                        Object[] selected = new Object[projection.length];
+                        
+                        for (int i = 0; i < projection.length; i++) {
+                            selected[i] = full[projection[i]];
+                        }
+                        joined.rows.add(selected);
+                    }
+                }
+            }
+            
+            return joined;
+        }
+        
+        /* Evaluate the conjuncts not evaluated by the databases on a joined row */
+        boolean evaluate (Map<String, Integer> columns, Object[] row) {
+            for (FedPredicate residual : residuals) {
+                if (!residual.evaluate(columns, row)) {
+                    return false;
+                }
+            }
+            
+            return true;
+        }
+        
+        /* Hash table with the build keys converted to numbers (created by the first probe that needs it) */
+        synchronized Map<Object, List<Object[]>> getNumericTable () {
+            if (numeric_table == null) {
+                numeric_table = new HashMap<>();
+                
+                for (Map.Entry<Object, List<Object[]>> entry : hash_table.entrySet()) {
+                    Object key = getNumericKey(entry.getKey());
+                    
+                    if (key != null) {
+                        List<Object[]> matches = numeric_table.get(key);
+                        
+                        if (matches == null) {
+                            matches = new ArrayList<>(1);
+                            numeric_table.put(key, matches);
+                        }
+                        matches.addAll(entry.getValue());
+                    }
+                }
+            }
+            
+            return numeric_table;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package fed.fdbs;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Row limit of a query: FETCH FIRST n ROWS ONLY or LIMIT n at the end of the query.
+ *
+ * The databases don't understand the clause (Oracle before 12c), so the limit is sent to them as a
+ * ROWNUM condition and every database returns at most n rows. ROWNUM is assigned before sorting,
+ * grouping and DISTINCT, so such queries are wrapped and the condition counts their result rows. 
+ * Joins are not wrapped, because their columns may have the same name (e.g. A.PNR, B.PNR): they 
+ * are sent without limit. The FDBS stops reading the databases as soon as n rows were returned 
+ * (see FedStreamResultSet).
+ *
+ */
+public class FedLimit {
+    public static final long NONE = -1;
+
+    private static final Pattern LIMIT = Pattern.compile("(?i)\\s+(FETCH\\s+FIRST\\s+([0-9]+)\\s+ROWS?\\s+ONLY|LIMIT\\s+([0-9]+))\\s*;?\\s*$");
+
+    // Clauses and functions computed after the ROWNUM condition of the WHERE clause
+    private static final Pattern WRAPPED = Pattern.compile("(?i)\\b(GROUP\\s+BY|HAVING|DISTINCT|(COUNT|SUM|AVG|MIN|MAX)\\s*\\()");
+
+
+    /**
+     * Return the row limit of a query.
+     *
+     * @param sql
+     * @return the maximum number of rows or NONE if the query has no limit
+     */
+    public static long fromStatement (String sql) {
+        Matcher limit = LIMIT.matcher(sql);
+        
+        if (!limit.find()) {
+            return NONE;
+        }
+        
+        return Long.parseLong(limit.group(2) != null ? limit.group(2) : limit.group(3));
+    }
+
+    /**
+     * Remove the row limit of a query.
+     *
+     * @param sql
+     * @return the query without FETCH FIRST or LIMIT clause
+     */
+    public static String strip (String sql) {
+        Matcher limit = LIMIT.matcher(sql);
+        
+        return limit.find() ? sql.substring(0, limit.start()) : sql;
+    }
+
+    /**
+     * Return the query to be sent to the databases so that each one returns at most limit rows.
+     *
+     * @param sql
+     *          the query without row limit
+     * @param limit
+     *          the maximum number of rows or NONE
+     * @param sorted
+     *          true if the query has an ORDER BY clause: the rows must be counted after sorting them
+     * @return the query with the ROWNUM condition, wrapped if the query is sorted, grouped, 
+     *          aggregated or DISTINCT. Such a join is returned without condition.
+     */
+    public static String getQuery (String sql, long limit, boolean sorted) {
+        if (limit == NONE) {
+            return sql;
+        }
+        
+        if (sorted || WRAPPED.matcher(sql).find()) {
+            return isJoin(sql) ? sql : "SELECT * FROM (" + sql + ") WHERE ROWNUM <= " + limit;
+        }
+        
+        int where = sql.toUpperCase().indexOf(" WHERE ");
+        
+        return where < 0 ? sql + " WHERE ROWNUM <= " + limit
+                         : sql.substring(0, where + 7) + "ROWNUM <= " + limit + " AND (" + sql.substring(where + 7) + ")";
+    }
+    
+    /* Has the FROM clause of the query several tables? */
+    private static boolean isJoin (String sql) {
+        String SQL  = sql.toUpperCase().replaceAll("\\s+", " ");
+        String from = SQL.substring(SQL.indexOf(" FROM ") + 6);
+        
+        for (String clause : new String[] { " WHERE ", " GROUP BY ", " HAVING ", " ORDER BY " }) {
+            from = from.contains(clause) ? from.substring(0, from.indexOf(clause)) : from;
+        }
+        
+        return from.contains(",");
+    }
+}
@@ -0,0 +1,70 @@
+package fed.fdbs;
+
+import java.util.Arrays;
+
+/**
+ * Group table with primitive long keys, e.g. integer columns (see FedGroupTable).
+ *
+ */
+public class FedLongGroupTable extends FedGroupTable {
+    private long[] keys;
+    
+    
+    /**
+     * @param functions
+     *          the aggregate function of each accumulator
+     * @param expected
+     *          the estimated number of groups
+     */
+    public FedLongGroupTable (FedAggregate[] functions, int expected) {
+        super(functions, expected);
+        keys = new long[slots.length / 2];
+    }
+    
+    
+    /**
+     * Return the number of the group with the given key, adding it if it doesn't exist.
+     * 
+     * @param key
+     * @return the number of the group
+     */
+    public int group (long key) {
+        int slot = mix(key) & mask;
+        
+        while (slots[slot] != 0) {
+            int group = slots[slot] - 1;
+            
+            if (keys[group] == key) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        int group = newGroup();
+        keys[group] = key;
+        
+        if (!growIndex()) {
+            slots[slot] = group + 1;
+        }
+        
+        return group;
+    }
+    
+    /* (non-Javadoc)
+     * @see fed.fdbs.FedGroupTable#getKey(int)
+     */
+    @Override
+    public Object getKey (int group) {
+        return isNullGroup(group) ? null : keys[group];
+    }
+    
+    @Override
+    protected void growKeys (int capacity) {
+        keys = Arrays.copyOf(keys, capacity);
+    }
+    
+    @Override
+    protected int hash (int group) {
+        return mix(keys[group]);
+    }
+}
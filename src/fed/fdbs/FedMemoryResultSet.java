@@ -0,0 +1,150 @@
+package fed.fdbs;
+
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * A FedResultSet whose rows are held in memory. It is used for results computed by the FDBS itself, 
+ * e.g. the merged groups of an aggregate function.
+ *
+ */
+public class FedMemoryResultSet extends FedResultSet {
+    private final String[] names;
+    private final int[] types;
+    private final List<Object[]> rows;
+    private int row_index;
+    
+    
+    /**
+     * Create a FedMemoryResultSet object with the given columns and rows.
+     * 
+     * @param names
+     *          the names of the columns
+     * @param types
+     *          the SQL types (java.sql.Types) of the columns
+     * @param rows
+     *          the values of each row (String, Number or null)
+     */
+    public FedMemoryResultSet (String[] names, int[] types, List<Object[]> rows) {
+        super();
+        this.names = names;
+        this.types = types;
+        this.rows  = rows;
+        this.row_index = -1;
+    }
+    
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#next()
+     */
+    @Override
+    public boolean next () {
+        if (row_index < rows.size()) {
+            row_index++;
+        }
+        
+        return row_index < rows.size();
+    }
+    
+    /* (non-Javadoc)
+     * @see fed.fdbs.FedResultSet#getValue(int)
+     */
+    @Override
+    public Object getValue (int colIndex) throws FedException {
+        Object value = getObject(colIndex);
+        
+        return value == null || types[colIndex - 1] == Types.VARCHAR ? value : getInt(colIndex);
+    }
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getString(int)
+     */
+    @Override
+    public String getString (int columnIndex) throws FedException {
+        Object value = getObject(columnIndex);
+        
+        return value != null ? value.toString() : null;
+    }
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getInt(int)
+     */
+    @Override
+    public int getInt (int columnIndex) throws FedException {
+        Object value = getObject(columnIndex);
+        
+        try {
+            return value instanceof Number ? ((Number) value).intValue() : 
+                   value != null ? Integer.parseInt(value.toString().trim()) : 0;
+        } catch (NumberFormatException e) {
+            throw new FedException("Invalid number " + value + " in column " + names[columnIndex - 1]);
+        }
+    }
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getColumnCount()
+     */
+    @Override
+    public int getColumnCount () {
+        return names.length;
+    }
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getColumnName(int)
+     */
+    @Override
+    public String getColumnName (int index) {
+        return names[index - 1];
+    }
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getColumnType(int)
+     */
+    @Override
+    public int getColumnType (int index) {
+        return types[index - 1];
+    }
+    
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#close()
+     */
+    @Override
+    public void close () {
+        row_index = rows.size();
+    }
+    
+    
+    /**
+     * Sort the rows by the ORDER BY clause of the query.
+     * 
+     * @param order
+     * @throws FedException if a sort key is not a column of this result set
+     */
+    public void sort (FedOrder order) throws FedException {
+        rows.sort(order.getComparator(names));
+        row_index = -1;
+    }
+    
+    
+    /**
+     * Keep only the first rows.
+     * 
+     * @param limit
+     *          the maximum number of rows or FedLimit.NONE
+     */
+    public void limit (long limit) {
+        while (limit != FedLimit.NONE && rows.size() > limit) {
+            rows.remove(rows.size() - 1);
+        }
+    }
+    
+    
+    /* Value of a column of the current row */
+    private Object getObject (int columnIndex) throws FedException {
+        if (row_index < 0 || row_index >= rows.size()) {
+            throw new FedException("No current row in the result set");
+        }
+        
+        return rows.get(row_index)[columnIndex - 1];
+    }
+}
@@ -0,0 +1,79 @@
+package fed.fdbs;
+
+import java.util.Arrays;
+
+/**
+ * Group table with object keys, e.g. strings (see FedGroupTable).
+ *
+ */
+public class FedObjectGroupTable extends FedGroupTable {
+    private Object[] keys;
+    private int[] hashes;
+    
+    
+    /**
+     * @param functions
+     *          the aggregate function of each accumulator
+     * @param expected
+     *          the estimated number of groups
+     */
+    public FedObjectGroupTable (FedAggregate[] functions, int expected) {
+        super(functions, expected);
+        keys   = new Object[slots.length / 2];
+        hashes = new int[slots.length / 2];
+    }
+    
+    
+    /**
+     * Return the number of the group with the given key, adding it if it doesn't exist.
+     * 
+     * @param key
+     * @return the number of the group
+     */
+    public int group (Object key) {
+        if (key == null) {
+            return nullGroup();
+        }
+        
+        int hash = mix(key.hashCode());
+        int slot = hash & mask;
+        
+        while (slots[slot] != 0) {
+            int group = slots[slot] - 1;
+            
+            if (hashes[group] == hash && keys[group].equals(key)) {
+                return group;
+            }
+            slot = (slot + 1) & mask;
+        }
+        
+        int group = newGroup();
+        keys[group]   = key;
+        hashes[group] = hash;
+        
+        if (!growIndex()) {
+            slots[slot] = group + 1;
+        }
+        
+        return group;
+    }
+    
+    /* (non-Javadoc)
+     * @see fed.fdbs.FedGroupTable#getKey(int)
+     */
+    @Override
+    public Object getKey (int group) {
+        return isNullGroup(group) ? null : keys[group];
+    }
+    
+    @Override
+    protected void growKeys (int capacity) {
+        keys   = Arrays.copyOf(keys, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+    }
+    
+    @Override
+    protected int hash (int group) {
+        return hashes[group];
+    }
+}
@@ -0,0 +1,189 @@
+package fed.fdbs;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ORDER BY clause of a query. The clause is sent to the databases with the query, so every database
+ * returns its rows sorted, and the sorted rows are merged by the FDBS (see FedStreamResultSet).
+ *
+ * The sort keys are columns (qualified or not) or positions in the select list, each one optionally
+ * followed by ASC or DESC. As in Oracle, NULL values are sorted after the other values in ascending
+ * order and before them in descending order. Strings are compared in binary order, the databases 
+ * sort them in the same order (NLS_SORT = BINARY, see FedConnection).
+ *
+ */
+public class FedOrder {
+    private final List<String> columns = new ArrayList<>();
+    private final List<Boolean> descending = new ArrayList<>();
+
+    // Number of sort columns added to the select list of the query (not returned to the user)
+    private int hidden;
+
+
+    /* Create a FedOrder object from the sort keys of an ORDER BY clause */
+    private FedOrder (String clause) {
+        for (String key : clause.split(",")) {
+            String[] words = key.trim().split("\\s+");
+            
+            columns.add(words[0]);
+            descending.add(words.length > 1 && words[1].equals("DESC"));
+        }
+    }
+
+
+    /**
+     * Parse the ORDER BY clause of a query.
+     *
+     * @param sql
+     * @return the ORDER BY clause or null if the query has none
+     */
+    public static FedOrder fromStatement (String sql) {
+        String SQL = sql.toUpperCase().trim();
+        int start  = SQL.indexOf(" ORDER BY ");
+        
+        if (start < 0) {
+            return null;
+        }
+        
+        String clause = SQL.substring(start + 10).trim();
+        clause = clause.endsWith(";") ? clause.substring(0, clause.length() - 1) : clause;
+        
+        return new FedOrder(clause);
+    }
+
+    /**
+     * Remove the ORDER BY clause of a query.
+     *
+     * @param sql
+     * @return the query without ORDER BY clause
+     */
+    public static String strip (String sql) {
+        int start = sql.toUpperCase().indexOf(" ORDER BY ");
+        
+        return start < 0 ? sql : sql.substring(0, start);
+    }
+
+
+    /**
+     * Add the sort columns that are not selected to the select list of the query, so that the
+     * databases return them and the rows can be merged. They are not returned to the user.
+     *
+     * @param sql
+     *          the query
+     * @return the query with the added columns
+     */
+    public String addColumns (String sql) {
+        String SQL  = sql.toUpperCase();
+        int from    = SQL.indexOf(" FROM ");
+        String list = SQL.substring(SQL.indexOf("SELECT") + 6, from).trim();
+        String added = "";
+        
+        if (list.equals("*")) {
+            return sql;
+        }
+        
+        List<String> selected = new ArrayList<>();
+        for (String column : list.split(",")) {
+            selected.add(column.trim());
+        }
+        
+        for (int k = 0; k < columns.size(); k++) {
+            String column = columns.get(k);
+            
+            if (isPosition(column)) {
+                continue;
+            }
+            
+            int index = indexOf(selected.toArray(new String[0]), column);
+            
+            if (index < 0) {
+                added += ", " + column;
+                selected.add(column);
+                hidden++;
+                index = selected.size() - 1;
+            }
+            
+            // The databases may return columns of different tables with the same name: sort by position
+            columns.set(k, Integer.toString(index + 1));
+        }
+        
+        return sql.substring(0, from) + added + sql.substring(from);
+    }
+
+    /**
+     * @return the number of sort columns added to the select list by addColumns
+     */
+    public int getHiddenColumns () {
+        return hidden;
+    }
+
+    /**
+     * Return a comparator of rows for the sort keys.
+     *
+     * @param names
+     *          the column names of the rows
+     * @return the comparator
+     * @throws FedException if a sort key is not a column of the rows
+     */
+    public Comparator<Object[]> getComparator (String[] names) throws FedException {
+        int[] indexes = new int[columns.size()];
+        
+        for (int k = 0; k < indexes.length; k++) {
+            String column = columns.get(k);
+            indexes[k] = -1;
+            
+            indexes[k] = isPosition(column) ? Integer.parseInt(column) - 1 : indexOf(names, column);
+            
+            if (indexes[k] < 0 || indexes[k] >= names.length) {
+                throw new FedException("Invalid ORDER BY column " + column);
+            }
+        }
+        
+        return (row1, row2) -> {
+            for (int k = 0; k < indexes.length; k++) {
+                Object value1 = row1[indexes[k]];
+                Object value2 = row2[indexes[k]];
+                int cmp = value1 == null ? (value2 == null ? 0 : 1) : value2 == null ? -1
+                                         : FedPredicate.compare(value1, value2);
+                
+                if (cmp != 0) {
+                    return descending.get(k) ? -cmp : cmp;
+                }
+            }
+            return 0;
+        };
+    }
+
+
+    /* Position of a column among the given ones: the same qualified name first, then the same name 
+       if one of them is not qualified (B.X is not A.X). -1 if there is none. */
+    private static int indexOf (String[] names, String column) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null && names[i].toUpperCase().equals(column)) {
+                return i;
+            }
+        }
+        
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i] != null ? names[i].toUpperCase() : null;
+            
+            if (name != null && getName(name).equals(getName(column)) && (!name.contains(".") || !column.contains("."))) {
+                return i;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /* Column name without table name */
+    private static String getName (String column) {
+        return column.substring(column.lastIndexOf('.') + 1);
+    }
+
+    /* Is the sort key a position in the select list? */
+    private static boolean isPosition (String column) {
+        return column.matches("[0-9]+");
+    }
+}
@@ -0,0 +1,176 @@
+package fed.fdbs;
+
+import java.math.BigDecimal;
+
+/**
+ * Descriptor of a horizontally partitioned table as stored in the METADATA table. It holds the
+ * partitioning column, its position within the table and the boundaries of the partitions.
+ * 
+ * The rows of the table are distributed among the databases as follows:
+ * db1 (fcolumn < left), db2 (left <= fcolumn < right) and db3 (fcolumn >= right).
+ * If no right boundary is defined, db2 holds every row with fcolumn >= left.
+ *
+ */
+public class FedPartition {
+    private final String table;
+    private final String fcolumn;
+    private final int column_index;
+    private final int left;
+    private final Integer right;
+    
+    
+    /**
+     * Create a FedPartition object with the metadata of a horizontally partitioned table.
+     * 
+     * @param table
+     * @param fcolumn
+     *          the partitioning column
+     * @param column_index
+     *          the position (starting at 1) of the partitioning column within the table
+     * @param left
+     * @param right
+     *          the right boundary or null if the table is only distributed in two databases
+     */
+    public FedPartition (String table, String fcolumn, int column_index, int left, Integer right) {
+        this.table = table;
+        this.fcolumn = fcolumn;
+        this.column_index = column_index;
+        this.left = left;
+        this.right = right;
+    }
+    
+    
+    /**
+     * Return the number of the database (1, 2 or 3) that stores the rows with the given value of 
+     * the partitioning column. NULL values are stored in db1.
+     * 
+     * @param value
+     *          a literal value of the partitioning column as found in an SQL statement
+     * @return the number of the database that owns the value
+     * @throws FedException if the value is not numeric
+     */
+    public int getDatabase (String value) throws FedException {
+        value = value.trim();
+        
+        if (value.startsWith("'") && value.endsWith("'") && value.length() > 1) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        if (value.equalsIgnoreCase("NULL")) {
+            return 1;
+        }
+        
+        try {
+            return getDatabase(new BigDecimal(value));
+        } catch (NumberFormatException e) {
+            throw new FedException("Invalid value " + value + " for the partitioning column " 
+                                    + table + "." + fcolumn);
+        }
+    }
+    
+    /**
+     * Return the number of the database (1, 2 or 3) that stores the rows with the given value of 
+     * the partitioning column.
+     * 
+     * @param value
+     * @return the number of the database that owns the value
+     */
+    public int getDatabase (BigDecimal value) {
+        if (value.compareTo(BigDecimal.valueOf(left)) < 0) {
+            return 1;
+        }
+        
+        return right == null || value.compareTo(BigDecimal.valueOf(right)) < 0 ? 2 : 3;
+    }
+    
+    
+    /**
+     * Return the databases holding rows of the table.
+     * 
+     * @return an array where the element i (1, 2 or 3) is true if the database i holds rows
+     */
+    public boolean[] getDatabases () {
+        return new boolean[] { false, true, true, right != null };
+    }
+    
+    /**
+     * Return the databases that can hold rows satisfying the comparison "fcolumn op value".
+     * 
+     * @param op
+     *          comparison operator (=, <>, !=, <, <=, >, >=)
+     * @param value
+     * @return an array where the element i (1, 2 or 3) is true if the database i can hold such rows
+     */
+    public boolean[] getDatabases (String op, BigDecimal value) {
+        boolean[] dbs = new boolean[4];
+        
+        if (op.equals("=")) {
+            dbs[getDatabase(value)] = true;
+            return dbs;
+        }
+        if (!op.matches("<|<=|>|>=")) {
+            return getDatabases();
+        }
+        
+        // Range [lower, upper) of each database, null if unbounded
+        BigDecimal[] lower = { null, null, BigDecimal.valueOf(left), right != null ? BigDecimal.valueOf(right) : null };
+        BigDecimal[] upper = { null, BigDecimal.valueOf(left), lower[3], null };
+        
+        for (int db = 1; db <= (right != null ? 3 : 2); db++) {
+            switch (op) {
+                case "<":
+                    dbs[db] = lower[db] == null || lower[db].compareTo(value) < 0;
+                    break;
+                case "<=":
+                    dbs[db] = lower[db] == null || lower[db].compareTo(value) <= 0;
+                    break;
+                default:
+                    // > and >=
+                    dbs[db] = upper[db] == null || upper[db].compareTo(value) > 0;
+            }
+        }
+        
+        return dbs;
+    }
+    
+    /**
+     * Return the condition selecting the rows stored on a database that belong to another database, 
+     * e.g. after an UPDATE of the partitioning column. Rows with NULL belong to db1.
+     * 
+     * @param db
+     *          1, 2 or 3
+     * @return the condition (SQL)
+     */
+    public String getMisplacedCondition (int db) {
+        switch (db) {
+            case 1:
+                return fcolumn + " >= " + left;
+            case 2:
+                return "(" + fcolumn + " < " + left + (right != null ? " OR " + fcolumn + " >= " + right : "") 
+                           + " OR " + fcolumn + " IS NULL)";
+            default:
+                return "(" + fcolumn + " < " + right + " OR " + fcolumn + " IS NULL)";
+        }
+    }
+    
+    
+    /*   Getters   */
+    public String getTable () {
+        return table;
+    }
+    
+    public String getColumn () {
+        return fcolumn;
+    }
+    
+    public int getColumnIndex () {
+        return column_index;
+    }
+    
+    public int getLeft () {
+        return left;
+    }
+    
+    public Integer getRight () {
+        return right;
+    }
+}
@@ -0,0 +1,109 @@
+package fed.fdbs;
+
+/**
+ * Execution plan of a query chosen by the FedPlanner: where the query is executed and, for joins of
+ * distributed tables, how the rows of the tables are brought together.
+ *
+ */
+public class FedPlan {
+    // The query is executed on db1 (tables not distributed or copied into temporal tables on db1)
+    public static final String LOCAL     = "LOCAL";
+    // The query is executed on one copy of a replicated table
+    public static final String REPLICA   = "REPLICA";
+    // The query is executed on every database that can hold rows and the results are merged
+    public static final String PUSHDOWN  = "PUSHDOWN";
+    // Joins of distributed tables (see FedJoin)
+    public static final String HASH      = FedJoin.HASH;
+    public static final String SEMIJOIN  = FedJoin.SEMIJOIN;
+    public static final String BROADCAST = FedJoin.BROADCAST;
+    public static final String TEMPTABLE = FedJoin.TEMPTABLE;
+
+    private final String strategy;
+    private final String[] tables;
+    private final boolean[] dbs;
+    private final FedJoin join;
+    private final String build;
+    private final boolean aggregate;
+    private final boolean grouped;
+    private final double cost;
+
+
+    /**
+     * Create a FedPlan object.
+     *
+     * @param strategy
+     *          one of the strategies defined in this class
+     * @param tables
+     *          the tables of the query
+     * @param dbs
+     *          dbs[i] is true if the query is executed on the database i (1, 2 or 3), null if the
+     *          strategy doesn't execute the query on the databases
+     * @param join
+     *          the join of distributed tables or null
+     * @param build
+     *          the table read first by a hash join or semi-join, or the table copied by a broadcast join
+     * @param aggregate
+     *          true if the query computes COUNT(*) or SUM
+     * @param grouped
+     *          true if the query has a GROUP BY clause
+     * @param cost
+     *          the estimated cost (bytes moved and round trips, in bytes), 0 if it wasn't estimated
+     */
+    FedPlan (String strategy, String[] tables, boolean[] dbs, FedJoin join, String build,
+             boolean aggregate, boolean grouped, double cost) {
+        this.strategy  = strategy;
+        this.tables    = tables;
+        this.dbs       = dbs;
+        this.join      = join;
+        this.build     = build;
+        this.aggregate = aggregate;
+        this.grouped   = grouped;
+        this.cost      = cost;
+    }
+
+
+    /**
+     * @return true if the query is executed on several databases and their results have to be merged
+     */
+    public boolean isDistributed () {
+        return strategy.equals(PUSHDOWN) || strategy.equals(BROADCAST);
+    }
+
+    /*   Getters   */
+    public String getStrategy () {
+        return strategy;
+    }
+
+    public String[] getTables () {
+        return tables;
+    }
+
+    public boolean[] getDatabases () {
+        return dbs;
+    }
+
+    public FedJoin getJoin () {
+        return join;
+    }
+
+    public String getBuild () {
+        return build;
+    }
+
+    public boolean isAggregate () {
+        return aggregate;
+    }
+
+    public boolean isGrouped () {
+        return grouped;
+    }
+
+    public double getCost () {
+        return cost;
+    }
+
+    @Override
+    public String toString () {
+        return strategy + (build != null ? " (" + build + ")" : "") + (cost > 0 ? ", estimated cost " + (long) cost : "");
+    }
+}
@@ -0,0 +1,255 @@
+package fed.fdbs;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * It chooses the execution plan (FedPlan) of a query.
+ *
+ * Queries on a single table are executed on the databases that can hold rows satisfying the
+ * condition (partition pruning), on one copy of a replicated table or on db1. Joins are executed
+ * locally on each database if the matching rows are stored on the same database (co-located joins
+ * and joins with a replicated table). Other joins of distributed tables are executed with the
+ * cheapest strategy according to the statistics of the tables (see FedStatistics):
+ *
+ * HASH: both tables are read by the FDBS and joined in memory.
+ * SEMIJOIN: the smaller table is read first and only the rows of the other table matching its keys.
+ * BROADCAST: the smaller table is copied to every database holding rows of the other table, and the
+ * join is executed locally on those databases.
+ * TEMPTABLE: the rows of both tables stored on db2 and db3 are copied to db1 and the join is executed
+ * on db1.
+ *
+ * The cost of a strategy is the estimated number of bytes moved between the databases and the FDBS,
+ * plus FedConfig.roundtripbytes for every round trip to a database. The strategy can be forced with
+ * FedConfig.joinstrategy.
+ *
+ */
+public class FedPlanner {
+    // Estimated size of a key sent to the databases in the IN list of a semi-join (bytes)
+    private static final int KEY_BYTES = 8;
+
+
+    /**
+     * Choose the execution plan of a query.
+     *
+     * @param stmt
+     *          the Statement objects of the databases (index 1 to 3), used to gather statistics
+     * @param sql
+     *          the query without row limit
+     * @return the plan
+     * @throws FedException
+     */
+    public static FedPlan plan (Statement[] stmt, String sql) throws FedException {
+        String SQL   = sql.toUpperCase().trim();
+        String table = SQL.substring(SQL.indexOf("FROM") + 4);
+        
+        for (String clause : new String[] { "WHERE", "GROUP BY", "ORDER BY" }) {
+            table = table.contains(clause) ? table.substring(0, table.indexOf(clause)) : table;
+        }
+        
+        String[] tables  = table.trim().split("\\s*,\\s*");
+        String columns   = SQL.substring(SQL.indexOf("SELECT") + 6, SQL.indexOf("FROM")).replaceAll(" ", "");
+        boolean aggregate = columns.contains("COUNT(*)") || columns.contains("SUM(") 
+                            || columns.contains("MIN(") || columns.contains("MAX(");
+        boolean grouped   = SQL.contains("GROUP BY");
+        boolean[] db1     = new boolean[] { false, true, false, false };
+        
+        try {
+            if (tables.length == 1) {
+                FedPartition partition = FedCatalog.getPartition(tables[0]);
+                
+                if (partition != null) {
+                    // Query concurrently the databases that can hold rows satisfying the condition
+                    return new FedPlan(FedPlan.PUSHDOWN, tables, getDatabases(sql, partition), null, null,
+                                       aggregate, grouped, 0);
+                }
+                
+                return new FedPlan(FedCatalog.isReplicated(tables[0]) ? FedPlan.REPLICA : FedPlan.LOCAL, tables,
+                                   db1, null, null, aggregate, grouped, 0);
+            }
+            
+            FedPartition[] partitions = { FedCatalog.getPartition(tables[0]), FedCatalog.getPartition(tables[1]) };
+            
+            if (partitions[0] == null && partitions[1] == null) {
+                // Tables stored in db1 (a replicated table has a copy in db1)
+                return new FedPlan(FedPlan.LOCAL, tables, db1, null, null, aggregate, grouped, 0);
+            }
+            
+            FedJoin join = new FedJoin(stmt, sql, tables[0], partitions[0], tables[1], partitions[1]);
+            
+            if (join.isColocated()) {
+                // Matching rows are stored on the same database: join locally on each database
+                boolean[] dbs = join.getColocatedDatabases();
+                
+                FedLogger.trace("Co-located join: executing on " + getDbNames(dbs));
+                return new FedPlan(FedPlan.PUSHDOWN, tables, dbs, join, null, aggregate, grouped, 0);
+            }
+            
+            for (int t = 0; t <= 1; t++) {
+                if (partitions[t] != null && FedCatalog.isReplicated(tables[1 - t])) {
+                    // Every database has a copy of the replicated table: join locally on each database
+                    boolean[] dbs = getDatabases(sql, partitions[t]);
+                    
+                    FedLogger.trace("Join with replicated table: executing on " + getDbNames(dbs));
+                    return new FedPlan(FedPlan.PUSHDOWN, tables, dbs, join, null, aggregate, grouped, 0);
+                }
+            }
+            
+            return planJoin(stmt, sql, tables, partitions, join, aggregate, grouped);
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+    }
+
+    /* Choose the cheapest strategy to join two tables that are not stored on the same databases */
+    private static FedPlan planJoin (Statement[] stmt, String sql, String[] tables, FedPartition[] partitions,
+                                     FedJoin join, boolean aggregate, boolean grouped) throws FedException {
+        double[] rows     = new double[2];
+        double[] width    = new double[2];
+        double[] remote   = new double[2];
+        double[] distinct = new double[2];
+        int[] copies      = new int[2];
+        
+        for (int t = 0; t <= 1; t++) {
+            FedStatistics statistics = FedCatalog.getStatistics(stmt, tables[t]);
+            String filter = join.getFilter(tables[t]);
+            String key    = join.getKey(tables[t]);
+            double selectivity = statistics.getSelectivity(filter != null ? FedPredicate.parse(filter) : null);
+            
+            // Qualifying rows: all of them, and those stored on db2 and db3
+            rows[t]   = statistics.getRows() * selectivity;
+            width[t]  = statistics.getWidth();
+            remote[t] = partitions[t] != null ? (statistics.getRows(2) + statistics.getRows(3)) * selectivity : 0;
+            
+            distinct[t] = Math.max(1, key != null ? Math.min(statistics.getDistinct(key), rows[t]) : rows[t]);
+            copies[t]   = partitions[t] != null ? count(partitions[t].getDatabases()) : 1;
+        }
+        
+        int build = rows[1] < rows[0] ? 1 : 0;
+        int probe = 1 - build;
+        int small = rows[1] * width[1] < rows[0] * width[0] ? 1 : 0;
+        int large = 1 - small;
+        
+        // Joined rows: each qualifying row matches rows / distinct keys rows of the other table
+        double joined = rows[0] * rows[1] / (join.getKey(tables[0]) != null ? Math.max(distinct[0], distinct[1]) : 1);
+        double result = joined * (width[0] + width[1]);
+        Map<String, Double> costs = new LinkedHashMap<>();
+        
+        if (join.isHashJoin()) {
+            costs.put(FedPlan.HASH, getCost(FedPlan.HASH, rows[0] * width[0] + rows[1] * width[1], copies[0] + copies[1]));
+            
+            if (distinct[build] <= FedConfig.semijoinkeys || FedConfig.joinstrategy.equals(FedPlan.SEMIJOIN)) {
+                double matched = rows[probe] * Math.min(1, distinct[build] / distinct[probe]);
+                
+                costs.put(FedPlan.SEMIJOIN, getCost(FedPlan.SEMIJOIN, rows[build] * width[build]
+                                                    + distinct[build] * KEY_BYTES * copies[probe]
+                                                    + matched * width[probe], copies[build] + copies[probe]));
+            }
+        }
+        
+        // Broadcast: the small table is read once and inserted on every database of the large table
+        // (drop, create, insert batches and query on each one)
+        double batches = Math.ceil(rows[small] / FedConfig.batchsize);
+        costs.put(FedPlan.BROADCAST, getCost(FedPlan.BROADCAST, rows[small] * width[small] * (1 + copies[large]) + result,
+                                             copies[small] + copies[large] * (3 + batches)));
+        
+        // Temporal tables: the rows of db2 and db3 are read and inserted into db1 (drop and query on db1)
+        double bytes = result;
+        double trips = 2;
+        for (int t = 0; t <= 1; t++) {
+            if (partitions[t] != null) {
+                bytes += 2 * remote[t] * width[t];
+                trips += copies[t] + Math.ceil(remote[t] / FedConfig.batchsize);
+            }
+        }
+        costs.put(FedPlan.TEMPTABLE, getCost(FedPlan.TEMPTABLE, bytes, trips));
+        
+        // The configured strategy, or the cheapest one
+        String strategy = FedConfig.joinstrategy;
+        
+        if (!costs.containsKey(strategy)) {
+            strategy = null;
+            
+            for (Map.Entry<String, Double> cost : costs.entrySet()) {
+                if (strategy == null || cost.getValue() < costs.get(strategy)) {
+                    strategy = cost.getKey();
+                }
+            }
+        }
+        
+        FedPlan plan;
+        
+        if (strategy.equals(FedPlan.HASH) || strategy.equals(FedPlan.SEMIJOIN)) {
+            plan = new FedPlan(strategy, tables, null, join, tables[build], aggregate, grouped, costs.get(strategy));
+        }
+        else if (strategy.equals(FedPlan.BROADCAST)) {
+            boolean[] dbs = partitions[large] != null ? getDatabases(sql, partitions[large])
+                                                      : new boolean[] { false, true, false, false };
+            plan = new FedPlan(strategy, tables, dbs, join, tables[small], aggregate, grouped, costs.get(strategy));
+        }
+        else {
+            plan = new FedPlan(strategy, tables, new boolean[] { false, true, false, false }, join, null,
+                               aggregate, grouped, costs.get(strategy));
+        }
+        
+        FedLogger.trace("Join plan: " + plan);
+        return plan;
+    }
+
+    /* Cost of a strategy: bytes moved and round trips */
+    private static double getCost (String strategy, double bytes, double trips) {
+        FedLogger.trace("Cost of " + strategy + " join: " + (long) bytes + " bytes, " + (long) trips + " round trips");
+        
+        return bytes + trips * FedConfig.roundtripbytes;
+    }
+
+
+    /**
+     * Return the databases that can hold rows of a distributed table affected by a statement,
+     * according to the condition of its WHERE clause on the partitioning column.
+     *
+     * @param sql
+     * @param partition
+     * @return an array where the element i (1, 2 or 3) is true if the database i can hold affected rows.
+     *          If no database can hold them, only db1 is set.
+     */
+    public static boolean[] getDatabases (String sql, FedPartition partition) {
+        FedPredicate predicate = FedPredicate.fromStatement(sql);
+        boolean[] dbs = predicate != null ? predicate.getDatabases(partition) : partition.getDatabases();
+        
+        if (!dbs[1] && !dbs[2] && !dbs[3]) {
+            dbs[1] = true;
+        }
+        
+        if (!Arrays.equals(dbs, partition.getDatabases())) {
+            FedLogger.trace("Partition pruning: executing on " + getDbNames(dbs));
+        }
+        
+        return dbs;
+    }
+
+    /* Number of selected databases */
+    private static int count (boolean[] dbs) {
+        return (dbs[1] ? 1 : 0) + (dbs[2] ? 1 : 0) + (dbs[3] ? 1 : 0);
+    }
+
+    /**
+     * Return the names of the selected databases, e.g. "db1, db3".
+     *
+     * @param dbs
+     *          dbs[i] is true if the database i (1, 2 or 3) is selected
+     * @return the names separated by commas
+     */
+    public static String getDbNames (boolean[] dbs) {
+        String names = "";
+        
+        for (int db = 1; db <= 3; db++) {
+            names += dbs[db] ? (names.isEmpty() ? "" : ", ") + FedConfig.getDbName(db) : "";
+        }
+        
+        return names;
+    }
+}
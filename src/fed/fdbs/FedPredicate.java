@@ -0,0 +1,423 @@
+package fed.fdbs;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Condition of the WHERE clause of a statement, parsed into a tree of comparisons combined with 
+ * AND and OR (AND binds stronger than OR). Comparisons have the form "operand operator operand" 
+ * where an operand is a (qualified) column, a quoted string, a number or NULL.
+ * 
+ * It is used to find out which databases can hold rows satisfying the condition, and to evaluate the
+ * condition on rows processed by the FDBS (e.g. joined rows).
+ *
+ */
+public class FedPredicate {
+    public static final String AND = "AND";
+    public static final String OR  = "OR";
+    
+    private final String operator;
+    private final FedPredicate left;
+    private final FedPredicate right;
+    private final String operand1;
+    private final String operand2;
+    
+    
+    /* Create an AND/OR node */
+    private FedPredicate (String operator, FedPredicate left, FedPredicate right) {
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+        this.operand1 = null;
+        this.operand2 = null;
+    }
+    
+    /* Create a comparison */
+    private FedPredicate (String operand1, String operator, String operand2) {
+        this.operator = operator;
+        this.left = null;
+        this.right = null;
+        this.operand1 = operand1;
+        this.operand2 = operand2;
+    }
+    
+    
+    /**
+     * Parse the WHERE clause of a statement.
+     * 
+     * @param sql
+     *          a SELECT, UPDATE or DELETE statement
+     * @return the condition of the statement or null if it has no WHERE clause or it can't be parsed
+     */
+    public static FedPredicate fromStatement (String sql) {
+        String SQL = sql.toUpperCase();
+        int start  = SQL.indexOf(" WHERE ");
+        
+        if (start < 0) {
+            return null;
+        }
+        
+        int end = SQL.length();
+        for (String clause : new String[] { " GROUP BY ", " HAVING ", " ORDER BY ", " FETCH FIRST ", " LIMIT " }) {
+            int index = SQL.indexOf(clause, start);
+            end = index > 0 && index < end ? index : end;
+        }
+        
+        return parse(sql.substring(start + 7, end).replace(";", ""));
+    }
+    
+    /**
+     * Parse a condition.
+     * 
+     * @param condition
+     *          e.g. (BUCHUNG.PNR > 2) AND (BUCHUNG.PNR <= 4)
+     * @return the parsed condition or null if it's empty or it can't be parsed
+     */
+    public static FedPredicate parse (String condition) {
+        List<String> tokens = tokenize(condition);
+        int[] pos = new int[1];
+        
+        if (tokens == null || tokens.isEmpty()) {
+            return null;
+        }
+        
+        FedPredicate predicate = parseOr(tokens, pos);
+        
+        return pos[0] == tokens.size() ? predicate : null;
+    }
+    
+    
+    /**
+     * Return the databases that can hold rows of a distributed table satisfying this condition.
+     * Comparisons on other columns than the partitioning column don't restrict the databases.
+     * 
+     * @param partition
+     * @return an array where the element i (1, 2 or 3) is true if the database i can hold rows
+     */
+    public boolean[] getDatabases (FedPartition partition) {
+        boolean[] dbs;
+        
+        if (operator.equals(AND) || operator.equals(OR)) {
+            boolean[] dbs1 = left.getDatabases(partition);
+            boolean[] dbs2 = right.getDatabases(partition);
+            
+            dbs = new boolean[4];
+            for (int db = 1; db <= 3; db++) {
+                dbs[db] = operator.equals(AND) ? dbs1[db] && dbs2[db] : dbs1[db] || dbs2[db];
+            }
+            return dbs;
+        }
+        
+        BigDecimal value = null;
+        String op = operator;
+        
+        if (isColumn(operand1, partition)) {
+            value = toNumber(operand2);
+        }
+        else if (isColumn(operand2, partition)) {
+            // value op column: swap the operands
+            value = toNumber(operand1);
+            op = op.startsWith("<") ? op.replace("<", ">") : op.startsWith(">") ? op.replace(">", "<") : op;
+        }
+        
+        return value != null ? partition.getDatabases(op, value) : partition.getDatabases();
+    }
+    
+    
+    /**
+     * Evaluate the condition on a row. A comparison with a NULL value is false.
+     * 
+     * @param columns
+     *          the index in the row of each column name (upper case, qualified and/or not qualified)
+     * @param row
+     *          the values of the row (String, BigDecimal, Timestamp or null)
+     * @return true if the row satisfies the condition
+     */
+    public boolean evaluate (Map<String, Integer> columns, Object[] row) {
+        if (operator.equals(AND)) {
+            return left.evaluate(columns, row) && right.evaluate(columns, row);
+        }
+        if (operator.equals(OR)) {
+            return left.evaluate(columns, row) || right.evaluate(columns, row);
+        }
+        
+        Object value1 = getValue(operand1, columns, row);
+        Object value2 = getValue(operand2, columns, row);
+        
+        if (value1 == null || value2 == null) {
+            return false;
+        }
+        
+        int cmp = compare(value1, value2);
+        
+        switch (operator) {
+            case "=":  return cmp == 0;
+            case "<":  return cmp < 0;
+            case "<=": return cmp <= 0;
+            case ">":  return cmp > 0;
+            case ">=": return cmp >= 0;
+            default:   return cmp != 0;
+        }
+    }
+    
+    /**
+     * Compare two values. Numbers are compared numerically, dates chronologically, strings 
+     * lexicographically. A string compared with a number is converted to a number if possible.
+     * 
+     * @param value1
+     * @param value2
+     * @return a negative number, zero or a positive number if value1 is less, equal or greater than value2
+     */
+    public static int compare (Object value1, Object value2) {
+        if (value1 instanceof BigDecimal && value2 instanceof BigDecimal) {
+            return ((BigDecimal) value1).compareTo((BigDecimal) value2);
+        }
+        
+        if (value1 instanceof Date && value2 instanceof Date) {
+            return ((Date) value1).compareTo((Date) value2);
+        }
+        
+        if (value1 instanceof BigDecimal || value2 instanceof BigDecimal) {
+            BigDecimal number1 = value1 instanceof BigDecimal ? (BigDecimal) value1 : toNumber(value1.toString().trim());
+            BigDecimal number2 = value2 instanceof BigDecimal ? (BigDecimal) value2 : toNumber(value2.toString().trim());
+            
+            if (number1 != null && number2 != null) {
+                return number1.compareTo(number2);
+            }
+        }
+        
+        return value1.toString().compareTo(value2.toString());
+    }
+    
+    /**
+     * Return the top level conjuncts of the condition, i.e. the condition split at the AND operators 
+     * that are not nested in an OR.
+     * 
+     * @return the list of conjuncts
+     */
+    public List<FedPredicate> getConjuncts () {
+        List<FedPredicate> conjuncts = new ArrayList<>();
+        
+        if (operator.equals(AND)) {
+            conjuncts.addAll(left.getConjuncts());
+            conjuncts.addAll(right.getConjuncts());
+        }
+        else {
+            conjuncts.add(this);
+        }
+        
+        return conjuncts;
+    }
+    
+    /**
+     * Return the columns used in the condition.
+     * 
+     * @return the list of operands that are neither strings, numbers nor NULL
+     */
+    public List<String> getColumns () {
+        List<String> columns = new ArrayList<>();
+        
+        if (operator.equals(AND) || operator.equals(OR)) {
+            columns.addAll(left.getColumns());
+            columns.addAll(right.getColumns());
+        }
+        else {
+            for (String operand : new String[] { operand1, operand2 }) {
+                if (isColumn(operand)) columns.add(operand.toUpperCase());
+            }
+        }
+        
+        return columns;
+    }
+    
+    /**
+     * @return true if this condition is a single comparison
+     */
+    public boolean isComparison () {
+        return operand1 != null;
+    }
+    
+    /**
+     * @return true if the operand is a column
+     */
+    public static boolean isColumn (String operand) {
+        return !operand.startsWith("'") && !operand.equalsIgnoreCase("NULL") && toNumber(operand) == null;
+    }
+    
+    /*   Getters   */
+    public String getOperator () {
+        return operator;
+    }
+    
+    public String getOperand1 () {
+        return operand1;
+    }
+    
+    public String getOperand2 () {
+        return operand2;
+    }
+    
+    public FedPredicate getLeft () {
+        return left;
+    }
+    
+    public FedPredicate getRight () {
+        return right;
+    }
+    
+    @Override
+    public String toString () {
+        return isComparison() ? operand1 + " " + operator + " " + operand2 
+                              : "(" + left + ") " + operator + " (" + right + ")";
+    }
+    
+    
+    /* Value of an operand in a row: a column value or a literal */
+    private static Object getValue (String operand, Map<String, Integer> columns, Object[] row) {
+        Integer index = columns.get(operand.toUpperCase());
+        
+        if (index != null) {
+            return row[index];
+        }
+        if (operand.startsWith("'")) {
+            return operand.substring(1, operand.length() - 1).replace("''", "'");
+        }
+        
+        return toNumber(operand);
+    }
+    
+    /* Is the operand the partitioning column? */
+    private static boolean isColumn (String operand, FedPartition partition) {
+        String column = operand.toUpperCase();
+        
+        return column.equals(partition.getColumn()) 
+                || column.equals(partition.getTable() + "." + partition.getColumn());
+    }
+    
+    /* Numeric value of a literal or null if it's not a number */
+    static BigDecimal toNumber (String operand) {
+        String value = operand.startsWith("'") ? operand.substring(1, operand.length() - 1).trim() : operand;
+        
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    
+    /* ****************** Parser ****************** */
+    
+    /* expression := term (OR term)* */
+    private static FedPredicate parseOr (List<String> tokens, int[] pos) {
+        FedPredicate predicate = parseAnd(tokens, pos);
+        
+        while (predicate != null && pos[0] < tokens.size() && tokens.get(pos[0]).equalsIgnoreCase(OR)) {
+            pos[0]++;
+            FedPredicate next = parseAnd(tokens, pos);
+            predicate = next != null ? new FedPredicate(OR, predicate, next) : null;
+        }
+        
+        return predicate;
+    }
+    
+    /* term := factor (AND factor)* */
+    private static FedPredicate parseAnd (List<String> tokens, int[] pos) {
+        FedPredicate predicate = parseFactor(tokens, pos);
+        
+        while (predicate != null && pos[0] < tokens.size() && tokens.get(pos[0]).equalsIgnoreCase(AND)) {
+            pos[0]++;
+            FedPredicate next = parseFactor(tokens, pos);
+            predicate = next != null ? new FedPredicate(AND, predicate, next) : null;
+        }
+        
+        return predicate;
+    }
+    
+    /* factor := '(' expression ')' | operand operator operand */
+    private static FedPredicate parseFactor (List<String> tokens, int[] pos) {
+        if (pos[0] >= tokens.size()) {
+            return null;
+        }
+        
+        if (tokens.get(pos[0]).equals("(")) {
+            pos[0]++;
+            FedPredicate predicate = parseOr(tokens, pos);
+            
+            if (predicate == null || pos[0] >= tokens.size() || !tokens.get(pos[0]).equals(")")) {
+                return null;
+            }
+            pos[0]++;
+            return predicate;
+        }
+        
+        if (pos[0] + 3 > tokens.size()) {
+            return null;
+        }
+        
+        String operand1 = tokens.get(pos[0]);
+        String operator = tokens.get(pos[0] + 1);
+        String operand2 = tokens.get(pos[0] + 2);
+        
+        if (!isOperand(operand1) || !operator.matches("=|<>|!=|<|<=|>|>=") || !isOperand(operand2)) {
+            return null;
+        }
+        pos[0] += 3;
+        
+        return new FedPredicate(operand1, operator, operand2);
+    }
+    
+    private static boolean isOperand (String token) {
+        return !token.matches("[()=<>!]+") && !token.equalsIgnoreCase(AND) && !token.equalsIgnoreCase(OR);
+    }
+    
+    /* Split a condition into parentheses, operators, quoted strings and words */
+    private static List<String> tokenize (String condition) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        
+        while (i < condition.length()) {
+            char c = condition.charAt(i);
+            int start = i;
+            
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            else if (c == '(' || c == ')') {
+                i++;
+            }
+            else if (c == '\'') {
+                // Quoted string ('' is an escaped quote)
+                for (i++; i < condition.length(); i++) {
+                    if (condition.startsWith("''", i)) {
+                        i++;
+                    }
+                    else if (condition.charAt(i) == '\'') {
+                        break;
+                    }
+                }
+                if (i >= condition.length()) {
+                    return null;
+                }
+                i++;
+            }
+            else if (c == '<' || c == '>' || c == '=' || c == '!') {
+                String op = condition.substring(i, Math.min(i + 2, condition.length()));
+                i += op.equals("<=") || op.equals(">=") || op.equals("<>") || op.equals("!=") ? 2 : 1;
+            }
+            else {
+                while (i < condition.length() && !Character.isWhitespace(condition.charAt(i)) 
+                                              && "()<>=!'".indexOf(condition.charAt(i)) < 0) {
+                    i++;
+                }
+            }
+            tokens.add(condition.substring(start, i));
+        }
+        
+        return tokens;
+    }
+}
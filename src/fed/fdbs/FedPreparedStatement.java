@@ -0,0 +1,414 @@
+package fed.fdbs;
+
+import java.math.BigDecimal;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It works similar to a JDBC PreparedStatement class for INSERT INTO ... VALUES (?, ...) statements.
+ * It aggregates one PreparedStatement per database, created when the first row is routed to that 
+ * database. Each row added to the batch is routed to the database that owns the value of the 
+ * partitioning column (see FedPartition), and the batch of every database is sent as soon as it 
+ * reaches the configured batch size. The rows of a replicated table are added to the batches of 
+ * all the databases.
+ * 
+ * A failing row does not abort the batch: the rows of the failed database batch are executed one 
+ * by one and the error of every failing row is available through getErrors. The error of a row of 
+ * a replicated table that was inserted into some of its copies names the databases of these copies.
+ *
+ */
+public class FedPreparedStatement {
+    private final Connection[] conn;
+    private final FedConnection fconn;
+    private final PreparedStatement[] pstmt;
+    private final List<List<Row>> batch;
+    private final String sql;
+    private final String table;
+    private final FedPartition partition;
+    private final boolean replicated;
+    
+    // Position of the partitioning column among the parameters (0 if it's a literal value)
+    private int fparam;
+    
+    // Database owning the rows if the partitioning column is a literal value
+    private int fdb = 1;
+    
+    private Object[] params;
+    private int[] null_types;
+    
+    // Update counts and error messages of the rows added since the last executeBatch
+    private final List<Integer> counts = new ArrayList<>();
+    private final List<String> errors  = new ArrayList<>();
+    private String[] last_errors = new String[0];
+    
+    // Rows of a replicated table added since the last executeBatch
+    private final List<Row> replicated_rows = new ArrayList<>();
+    
+    
+    /**
+     * Create a FedPreparedStatement object for an INSERT statement with parameter markers.
+     * 
+     * @param c1
+     * @param c2
+     * @param c3
+     * @param daddy
+     *          the FedConnection of the connections or null
+     * @param sql
+     *          INSERT INTO table VALUES (?, ..., ?)
+     * @throws FedException
+     */
+    public FedPreparedStatement (Connection c1, Connection c2, Connection c3, FedConnection daddy, String sql) throws FedException {
+        String SQL = sql.toUpperCase().trim();
+        
+        if (!SQL.startsWith("INSERT") || !SQL.contains("VALUES")) {
+            throw new FedException("Only INSERT INTO ... VALUES statements can be prepared: " + sql);
+        }
+        
+        this.conn  = new Connection[] { null, c1, c2, c3 };
+        this.fconn = daddy;
+        this.pstmt = new PreparedStatement[4];
+        this.batch = new ArrayList<>();
+        this.sql = sql;
+        
+        this.table = SQL.substring(SQL.indexOf("INTO") + 4, SQL.indexOf("VALUES")).trim();
+        List<String> values = FedStatement.getInsertValues(sql);
+        int count = 0;
+        
+        try {
+            partition  = FedCatalog.getPartition(table);
+            replicated = partition == null && FedCatalog.isReplicated(table);
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+        
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i).equals("?")) {
+                count++;
+                
+                if (partition != null && partition.getColumnIndex() == i + 1) {
+                    fparam = count;
+                }
+            }
+        }
+        
+        if (partition != null && fparam == 0) {
+            if (partition.getColumnIndex() > values.size()) {
+                throw new FedException("Missing value for the partitioning column " 
+                                        + table + "." + partition.getColumn());
+            }
+            fdb = partition.getDatabase(values.get(partition.getColumnIndex() - 1));
+        }
+        
+        params = new Object[count];
+        null_types = new int[count];
+        
+        for (int db = 0; db <= 3; db++) {
+            batch.add(new ArrayList<Row>());
+        }
+    }
+    
+    
+    /**
+     * Set the designated parameter to the given int value.
+     * 
+     * @param index
+     *          the first parameter is 1
+     * @param value
+     */
+    public void setInt (int index, int value) {
+        params[index - 1] = value;
+    }
+    
+    /**
+     * Set the designated parameter to the given BigDecimal value.
+     * 
+     * @param index
+     *          the first parameter is 1
+     * @param value
+     */
+    public void setBigDecimal (int index, BigDecimal value) {
+        params[index - 1] = value;
+    }
+    
+    /**
+     * Set the designated parameter to the given String value.
+     * 
+     * @param index
+     *          the first parameter is 1
+     * @param value
+     */
+    public void setString (int index, String value) {
+        params[index - 1] = value;
+    }
+    
+    /**
+     * Set the designated parameter to the given object, e.g. a java.sql.Timestamp.
+     * 
+     * @param index
+     *          the first parameter is 1
+     * @param value
+     */
+    public void setObject (int index, Object value) {
+        params[index - 1] = value;
+    }
+    
+    /**
+     * Set the designated parameter to SQL NULL.
+     * 
+     * @param index
+     *          the first parameter is 1
+     * @param sqlType
+     *          the SQL type code defined in java.sql.Types
+     */
+    public void setNull (int index, int sqlType) {
+        params[index - 1] = null;
+        null_types[index - 1] = sqlType;
+    }
+    
+    
+    /**
+     * Add the current set of parameters to the batch of the database that owns the row (or of all 
+     * the databases if the table is replicated). The batch of a database is executed if it reaches 
+     * the configured batch size.
+     * 
+     * @throws FedException
+     */
+    public void addBatch () throws FedException {
+        Row row = new Row(counts.size(), params.clone(), null_types.clone());
+        int db  = fdb;
+        
+        if (fparam > 0) {
+            Object value = params[fparam - 1];
+            db = partition.getDatabase(value == null ? "NULL" : value.toString());
+        }
+        
+        counts.add(Statement.EXECUTE_FAILED);
+        errors.add(null);
+        
+        if (replicated) {
+            replicated_rows.add(row);
+            
+            for (int copy = 1; copy <= 3; copy++) {
+                addBatch(copy, row);
+            }
+        }
+        else {
+            addBatch(db, row);
+        }
+    }
+    
+    /**
+     * Add a row to the batch of a database and execute the batch if it reaches the configured size.
+     * 
+     * @param db
+     * @param row
+     * @throws FedException
+     */
+    private void addBatch (int db, Row row) throws FedException {
+        try {
+            if (pstmt[db] == null) {
+                pstmt[db] = conn[db].prepareStatement(sql);
+            }
+            
+            bind(pstmt[db], row);
+            pstmt[db].addBatch();
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+        
+        batch.get(db).add(row);
+        
+        if (batch.get(db).size() >= FedConfig.batchsize) {
+            flush(db);
+        }
+    }
+    
+    /**
+     * Execute the pending batches of all the databases.
+     * 
+     * @return the update counts of the rows added since the last call to executeBatch, in the order 
+     *          they were added. Failed rows have the value Statement.EXECUTE_FAILED.
+     * @throws FedException
+     */
+    public int[] executeBatch () throws FedException {
+        for (int db = 1; db <= 3; db++) {
+            flush(db);
+        }
+        
+        // A failed row of a replicated table may have been inserted into some of its copies
+        for (Row row : replicated_rows) {
+            if (errors.get(row.ordinal) != null && (row.copies[1] || row.copies[2] || row.copies[3])) {
+                errors.set(row.ordinal, errors.get(row.ordinal) + " (the row was inserted into " 
+                                        + FedPlanner.getDbNames(row.copies) + ": the copies of " + table + " differ)");
+            }
+        }
+        replicated_rows.clear();
+        
+        int[] result = new int[counts.size()];
+        int inserted = 0;
+        
+        for (int i = 0; i < result.length; i++) {
+            result[i] = counts.get(i);
+            inserted += Math.max(0, result[i]);
+        }
+        counts.clear();
+        FedCatalog.addModifications(table, inserted);
+        
+        last_errors = errors.toArray(new String[0]);
+        errors.clear();
+        
+        return result;
+    }
+    
+    /**
+     * Return the error messages of the rows of the last executed batch in the order they were added.
+     * 
+     * @return an array with the error message of each failed row, or null for successful rows
+     */
+    public String[] getErrors () {
+        return last_errors;
+    }
+    
+    /**
+     * Send the pending batch of a database. If the batch fails, the not yet executed rows are 
+     * executed one by one to find out the failing rows.
+     * 
+     * @param db
+     * @throws FedException
+     */
+    private void flush (int db) throws FedException {
+        List<Row> rows = batch.get(db);
+        
+        if (rows.isEmpty()) {
+            return;
+        }
+        
+        Savepoint savepoint = null;
+        
+        try {
+            if (!conn[db].getAutoCommit() && (fconn == null || !fconn.isTransactionActive())) {
+                // Savepoints are not allowed in a distributed transaction (XA)
+                savepoint = conn[db].setSavepoint();
+            }
+            
+            int[] result = pstmt[db].executeBatch();
+            
+            for (int i = 0; i < rows.size(); i++) {
+                // Some drivers (e.g. Oracle) don't report the number of rows of each statement
+                setCount(rows.get(i), db, result[i] == Statement.SUCCESS_NO_INFO ? 1 : result[i]);
+            }
+        } catch (BatchUpdateException e) {
+            int executed = 0;
+            
+            try {
+                pstmt[db].clearBatch();
+                
+                if (savepoint != null) {
+                    // Undo the whole batch and execute it again row by row
+                    conn[db].rollback(savepoint);
+                }
+                else {
+                    // Keep the rows executed before the failure
+                    int[] result = e.getUpdateCounts() != null ? e.getUpdateCounts() : new int[0];
+                    
+                    while (executed < result.length && executed < rows.size() 
+                                                    && result[executed] != Statement.EXECUTE_FAILED) {
+                        setCount(rows.get(executed), db, result[executed] == Statement.SUCCESS_NO_INFO ? 1 : result[executed]);
+                        executed++;
+                    }
+                }
+                
+                for (Row row : rows.subList(executed, rows.size())) {
+                    try {
+                        bind(pstmt[db], row);
+                        setCount(row, db, pstmt[db].executeUpdate());
+                    } catch (SQLException re) {
+                        // A row of a replicated table fails if any of its copies fails
+                        errors.set(row.ordinal, new FedException(re).getMessage());
+                        counts.set(row.ordinal, Statement.EXECUTE_FAILED);
+                    }
+                }
+            } catch (SQLException se) {
+                throw new FedException(se);
+            }
+        } catch (SQLException e) {
+            throw new FedException(e);
+        } finally {
+            rows.clear();
+        }
+    }
+    
+    /**
+     * Set the update count of a row inserted into a database, unless it already failed on another database.
+     */
+    private void setCount (Row row, int db, int count) {
+        row.copies[db] = true;
+        
+        if (errors.get(row.ordinal) == null) {
+            counts.set(row.ordinal, count);
+        }
+    }
+    
+    /**
+     * Set the parameters of a row in a PreparedStatement.
+     */
+    private void bind (PreparedStatement ps, Row row) throws SQLException {
+        for (int i = 0; i < row.values.length; i++) {
+            if (row.values[i] instanceof Integer) {
+                ps.setInt(i + 1, (Integer) row.values[i]);
+            }
+            else if (row.values[i] instanceof BigDecimal) {
+                ps.setBigDecimal(i + 1, (BigDecimal) row.values[i]);
+            }
+            else if (row.values[i] instanceof String) {
+                ps.setString(i + 1, (String) row.values[i]);
+            }
+            else if (row.values[i] != null) {
+                ps.setObject(i + 1, row.values[i]);
+            }
+            else {
+                ps.setNull(i + 1, row.null_types[i] != 0 ? row.null_types[i] : Types.VARCHAR);
+            }
+        }
+    }
+    
+    /**
+     * Release the PreparedStatement objects of the databases. Pending batches are discarded.
+     * 
+     * @throws FedException
+     */
+    public void close () throws FedException {
+        try {
+            for (int db = 1; db <= 3; db++) {
+                if (pstmt[db] != null) pstmt[db].close();
+            }
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+    }
+    
+    /**
+     * Parameters of a row added to the batch of a database.
+     */
+    private static class Row {
+        final int ordinal;
+        final Object[] values;
+        final int[] null_types;
+        
+        // Databases the row was inserted into (index 1 to 3)
+        final boolean[] copies = new boolean[4];
+        
+        Row (int ordinal, Object[] values, int[] null_types) {
+            this.ordinal = ordinal;
+            this.values = values;
+            this.null_types = null_types;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package fed.fdbs;
 
+import java.util.List;
+
 /**
  * This class creates a FedPseudoDriver object to retrieve the established 
- * connections to the databases (contained in a FedConnection object).
+ * connections to the databases (contained in a FedConnection object). With pooling enabled 
+ * (FedConfig.poolsize), the connections are leased from a FedConnectionPool per database.
  *
  */
 public class FedPseudoDriver implements FedPseudoDriverInterface {
@@ -24,5 +27,15 @@ public class FedPseudoDriver implements FedPseudoDriverInterface {
     public FedConnection getConnection (String username, String password) throws FedException {
         return new FedConnection(username, password);
     }
+    
+    /**
+     * Return the metrics of the connection pools (pooling enabled with FedConfig.poolsize), 
+     * one line per database and user.
+     * 
+     * @return the metrics of the pools
+     */
+    public List<String> getPoolMetrics () {
+        return FedConnectionPool.getAllMetrics();
+    }
 
 }
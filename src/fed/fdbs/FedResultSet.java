@@ -12,7 +12,6 @@ import java.sql.Types;
 public class FedResultSet implements FedResultSetInterface {
     private ResultSet[] rs;
     private int rs_index;
-    private boolean function;
 
     /**
      * Create a FedResultSet that contains the ResultSet objects obtained after the execution of a
@@ -22,10 +21,21 @@ public class FedResultSet implements FedResultSetInterface {
      * @param rs2
      * @param rs3
      */
-    public FedResultSet (ResultSet rs1, ResultSet rs2, ResultSet rs3, boolean function) {
+    public FedResultSet (ResultSet rs1, ResultSet rs2, ResultSet rs3) {
         this.rs = new ResultSet[] { null, rs1, rs2, rs3 };
-        this.rs_index = 1;
-        this.function = function;
+        this.rs_index = getFirstIndex();
+    }
+    
+    /**
+     * Create an empty FedResultSet. To be used by subclasses that don't aggregate ResultSet objects.
+     */
+    protected FedResultSet () {
+        this(null, null, null);
+    }
+    
+    /* Index of the first ResultSet (databases not queried have no ResultSet) */
+    private int getFirstIndex () {
+        return rs[1] != null ? 1 : rs[2] != null ? 2 : rs[3] != null ? 3 : 1;
     }
         
 
@@ -39,11 +49,11 @@ public class FedResultSet implements FedResultSetInterface {
                 rs_index = 1;
                 return true;
             }
-            else if (!function && rs[2] != null && rs[2].next()) {
+            else if (rs[2] != null && rs[2].next()) {
                 rs_index = 2;
                 return true;
             }
-            else if (!function && rs[3] != null && rs[3].next()) {
+            else if (rs[3] != null && rs[3].next()) {
                 rs_index = 3;
                 return true;
             }            
@@ -51,7 +61,7 @@ public class FedResultSet implements FedResultSetInterface {
             throw new FedException(e);
         }
         
-        rs_index = 1;
+        rs_index = getFirstIndex();
         return false;
     }
 
@@ -94,14 +104,9 @@ public class FedResultSet implements FedResultSetInterface {
     @Override
     public int getInt (int columnIndex) throws FedException {
         try {
-            if (!function && rs[rs_index] != null) {
+            if (rs[rs_index] != null) {
                 return rs[rs_index].getInt(columnIndex);
             }
-            else if (function) {
-                return (rs[1] != null  ? rs[1].getInt(columnIndex) : 0) +
-                       (rs[2] != null && rs[2].next() ? rs[2].getInt(columnIndex) : 0) +
-                       (rs[3] != null && rs[3].next() ? rs[3].getInt(columnIndex) : 0); 
-            }
         } catch (SQLException e) {
             throw new FedException(e);
         }
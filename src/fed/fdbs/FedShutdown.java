@@ -1,9 +1,14 @@
 package fed.fdbs;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
 /**
  * It implements the Runnable interface. A thread is created by FDBSFacade and added to the ShutdownHook. 
  * This thread will then be executed at the end of the java application. This component calls the method 
- * to drop all the temporal tables.
+ * to drop all the temporal tables and closes the pooled connections.
  *
  */
 public class FedShutdown implements Runnable {
@@ -13,9 +18,22 @@ public class FedShutdown implements Runnable {
      */
     @Override
     public void run () {
-        if (FedConfig.getDb1Name() != null) {
-            FedCatalog.dropTempTables(); 
+        if (FedConfig.getDb1Name() != null && FedCatalog.isLoaded()) {
+            // The sessions may be closed already: use a new connection to every database
+            // (joins create temporal tables on db1, broadcast joins on db2 and db3 too)
+            for (int db = 1; db <= 3; db++) {
+                try (Connection conn = DriverManager.getConnection(FedConfig.getDb(db), FedConfig.getUser(), FedConfig.getPasswd());
+                     Statement stmt = conn.createStatement()) {
+                    FedCatalog.dropTempTables(stmt);
+                } catch (SQLException e) {
+                    FedLogger.error("FDBS Execution Exception: Not possible to drop the temporal tables on " 
+                                    + FedConfig.getDbName(db) + " at the moment...");
+                }
+            }
         }
+        
+        // Close the idle pooled connections
+        FedConnectionPool.closeAll();
     }
 
 }
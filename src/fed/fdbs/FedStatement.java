@@ -1,15 +1,21 @@
 package fed.fdbs;
 
+import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Savepoint;
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import fed.parser.ParseException;
 import fed.parser.Parser;
@@ -24,12 +30,26 @@ public class FedStatement implements FedStatementInterface {
     private Statement stmt2;
     private Statement stmt3;
     private FedConnection fconn;
+    
+    // Result of the last query still being read from the databases
+    private FedStreamResultSet stream;
+    
+    // Temporal tables of the last join and the databases holding them, dropped with its result
+    private final Map<String, boolean[]> temp_tables = new LinkedHashMap<>();
+    
+    // Copy of the replicated tables to be read next
+    private static final AtomicInteger replica = new AtomicInteger();
+    
+    // Number of the session, it names the temporal tables of its joins
+    private static final AtomicInteger sessions = new AtomicInteger();
+    private final int session = sessions.incrementAndGet();
 
     
     /**
      * Create a FedStatement object and set the SQL Statement objects from the SQL Connection objects
      * and the parent FedConnection object.
-     * It also creates the metadata and operation tables if they don't exist.
+     * It also creates the metadata table if it doesn't exist and reads the catalog of the distributed 
+     * tables (only the first FedStatement does it).
      * 
      * @param conn1
      * @param conn2
@@ -49,9 +69,8 @@ public class FedStatement implements FedStatementInterface {
             setFetchSize(FedConfig.fetchsize);
             
             // Start catalog manager
-            FedCatalog.setStatement(stmt1);
-            FedCatalog.createMetadataTable();
-            FedCatalog.createOperationTable();
+            FedCatalog.createMetadataTable(stmt1);
+            FedCatalog.load(stmt1);
             
         } catch (SQLException e) {
             throw new FedException(e);
@@ -92,7 +111,7 @@ public class FedStatement implements FedStatementInterface {
         if (FedConfig.validate) {
             new Parser(sql).validate();
         }
-
+        
         // execute statement
         return sql.toUpperCase().startsWith("SELECT") ? executeQuery(sql) : executeUpdate(sql);
     }
@@ -127,133 +146,239 @@ public class FedStatement implements FedStatementInterface {
     @Override
     @Deprecated
     public FedResultSet executeQuery (String sql) throws FedException {
-        String SQL   = sql.toUpperCase().trim();
-        String table = SQL.substring(SQL.indexOf("FROM") + 4);
+        // The row limit is applied by the FDBS and sent separately to the databases
+        long limit = FedLimit.fromStatement(sql);
+        sql        = FedLimit.strip(sql);
         
-        table = table.contains("WHERE") ? table.substring(0, table.indexOf("WHERE")).trim() : table.trim();  
-        table = table.contains("GROUP BY") ? table.substring(0, table.indexOf("GROUP BY")).trim() : table.trim();
+        closeStream();
         
         // Statement: SELECT
         try {
-            ResultSet rs  = FedCatalog.getMetadata(table);
-            ResultSet rs1 = null; 
-            ResultSet rs2 = null; 
-            ResultSet rs3 = null; 
-            boolean funct = false;
-
-            if (table.contains(",")) {
-                // It's a join...
-                boolean distributed = false;
-                String table1 = table.split(",")[0].trim();
-                String table2 = table.split(",")[1].trim();
-                String sql_temp = sql;
-                
-                FedCatalog.dropTempTables();
-                
-                rs = FedCatalog.getMetadata(table1);
-                if (rs != null && rs.next()) { 
-                    // ...and it's distributed (first table)
-                    Object right = rs.getObject("right");
-                    distributed  = true;
-                    sql_temp = FedCatalog.getTempQuery(sql_temp, table1);
-                    
-                    // Clone table1 on db1
-                    FedCatalog.createTempTable(table1);
-                    
-                    // Insert values from db2.table1 into db1.tempTable1
-                    FedCatalog.insertIntoTempTable(table1, stmt2.executeQuery("SELECT * FROM " + table1));
-                    
-                    // Insert values from db3.table1 into db1.tempTable1
-                    if (right != null) {
-                        FedCatalog.insertIntoTempTable(table1, stmt3.executeQuery("SELECT * FROM " + table1));
-                    }
-                }
-                
-                rs = FedCatalog.getMetadata(table2);
-                if (rs != null && rs.next()) { 
-                    // ...and it's distributed (second table)
-                    Object right = rs.getObject("right");
-                    distributed  = true;
-                    sql_temp = FedCatalog.getTempQuery(sql_temp, table2);
-                    
-                    // Clone table2 on db1
-                    FedCatalog.createTempTable(table2);
-                    
-                    // Insert values from db2.table2 into db1.tempTable2
-                    FedCatalog.insertIntoTempTable(table2, stmt2.executeQuery("SELECT * FROM " + table2));
-                    
-                    // Insert values from db3.table2 into db1.tempTable2
-                    if (right != null) {
-                        FedCatalog.insertIntoTempTable(table2, stmt3.executeQuery("SELECT * FROM " + table2));
-                    }
-                }
+            FedPlan plan = FedPlanner.plan(new Statement[] { null, stmt1, stmt2, stmt3 }, sql);
+            String strategy = plan.getStrategy();
+            ResultSet[] rs = new ResultSet[4];
+            
+            // The groups are estimated on the original query (the tables of a join may be replaced by temporal tables)
+            int expected = plan.isDistributed() && plan.isAggregate() && plan.isGrouped() ? estimateGroups(plan, sql) : 0;
+            
+            if (strategy.equals(FedPlan.HASH) || strategy.equals(FedPlan.SEMIJOIN)) {
+                // Equi-joins of distributed tables are joined in memory
+                FedMemoryResultSet joined = plan.getJoin().execute(plan.getBuild(), strategy.equals(FedPlan.SEMIJOIN));
+                joined.limit(limit);
+                return joined;
+            }
+            else if (strategy.equals(FedPlan.BROADCAST) || strategy.equals(FedPlan.TEMPTABLE)) {
+                // The temporal tables are created outside the distributed transaction
+                suspendTransaction();
                 
-                if (distributed) {                  
-                    sql = sql_temp;
-                    rs  = null;
-                    rs2 = null;
-                    rs3 = null;
+                try {
+                    // The smaller table is copied next to the rows of the other table, 
+                    // or the distributed tables are copied into db1
+                    sql = strategy.equals(FedPlan.BROADCAST) ? broadcast(plan, sql) : copyToTempTables(plan, sql);
+                } finally {
+                    resumeTransaction();
                 }
             }
             
-            if (rs != null && rs.next()) {
-                rs2 = stmt2.executeQuery(sql);
-                rs3 = rs.getObject("right") != null ? stmt3.executeQuery(sql) : null;
-                
-                // Check if it's a COUNT(*) or SUM(column) function
-                String columns = SQL.substring(SQL.indexOf("SELECT") + 6, SQL.indexOf("FROM")).replaceAll(" ", "").trim();
-
-                funct = columns.contains("COUNT(*)") || columns.contains("SUM(");
+            // Every database sorts its rows and the sorted rows are merged: the sort columns must be selected
+            FedOrder order = FedOrder.fromStatement(sql);
+            
+            if (order != null && !plan.isGrouped()) {
+                sql = order.addColumns(sql);
             }
-            rs1 = stmt1.executeQuery(sql);
             
-            if (funct && SQL.contains("GROUP BY")) {
-                // Aggregate functions
-                Map<String, Integer> temptable = new HashMap<>();
-                String attribute = rs1.getMetaData().getColumnName(1);
-                String function  = rs1.getMetaData().getColumnName(2).replace("(*)", "#$#")
-                                    .replace("(", "_$_").replace(".", "$#$").replace(")", "_#_");
-                
-                while (rs1 != null && rs1.next()) {
-                    int opt = Integer.parseInt(rs1.getObject(2).toString());
-                    temptable.put(rs1.getString(1), opt);
-                }
-                while (rs2 != null && rs2.next()) {
-                    int opt = Integer.parseInt(rs2.getObject(2).toString());
-                    String key = rs2.getString(1);
-                    int value = temptable.containsKey(key) ? temptable.get(key) + opt : opt; 
-                    temptable.put(key, value);
-                }
-                while (rs3 != null && rs3.next()) {
-                    int opt = Integer.parseInt(rs3.getObject(2).toString());
-                    String key = rs3.getString(1);
-                    int value = temptable.containsKey(key) ? temptable.get(key) + opt : opt; 
-                    temptable.put(key, value);
-                }
+            if (plan.isDistributed()) {
+                // Aggregates are computed per database and merged afterwards
+                String query = plan.isAggregate() && plan.isGrouped() ? FedAggregator.getPartialQuery(FedOrder.strip(sql)) 
+                             : plan.isAggregate() ? FedOrder.strip(sql) : FedLimit.getQuery(sql, limit, order != null);
                 
-                // Recreate the operations table
-                stmt1.executeUpdate("DROP TABLE " + FedCatalog.OPERATION);
-                stmt1.executeUpdate("CREATE TABLE " + FedCatalog.OPERATION + " (" 
-                                     + attribute + " VARCHAR(20), " + function + " INTEGER)");
+                rs = executeQueries(query, plan.getDatabases());
+            }
+            else if (strategy.equals(FedPlan.REPLICA)) {
+                // Any copy of a replicated table can be read: spread the queries over the databases
+                int db = 1 + (replica.getAndIncrement() & Integer.MAX_VALUE) % 3;
+                
+                rs[db] = getStatement(db).executeQuery(FedLimit.getQuery(sql, limit, order != null));
+            }
+            else {
+                rs[1] = stmt1.executeQuery(FedLimit.getQuery(sql, limit, order != null));
+            }
+            
+            if (plan.isDistributed() && plan.isAggregate() && plan.isGrouped()) {
+                // Aggregate functions: merge the partial results of the databases
+                FedMemoryResultSet groups = FedAggregator.merge(rs, FedOrder.strip(sql), expected);
                 
-                for (String key : temptable.keySet()) {
-                    stmt1.executeUpdate("INSERT INTO " + FedCatalog.OPERATION + " VALUES ('" 
-                                          + key + "', " + temptable.get(key) + ")");
+                if (order != null) {
+                    groups.sort(order);
                 }
-
-                // Select results from the operations table
-                rs1 = stmt1.executeQuery("SELECT * FROM " + FedCatalog.OPERATION);
-                rs2 = null;
-                rs3 = null;
-                funct = false;
+                groups.limit(limit);
+                return groups;
+            }
+            
+            if (plan.isDistributed() && plan.isAggregate()) {
+                // Aggregate functions without GROUP BY: add the single row of every database
+                FedMemoryResultSet total = FedAggregator.mergeScalar(rs);
+                total.limit(limit);
+                return total;
             }
             
-            return new FedResultSet(rs1, rs2, rs3, funct);
+            // The rows are read concurrently from the databases while they are processed
+            stream = new FedStreamResultSet(rs, FedConfig.prefetchordered, order, limit);
+            return stream;
         } catch (SQLException e) {
             throw new FedException(e);
         }
     }
     
+    /**
+     * Estimate the number of groups of a grouped query: the number of distinct values of the grouping 
+     * column according to the statistics of its table (at most its number of rows). The statistics 
+     * are never gathered for this estimate, only the known ones are used.
+     * 
+     * @param plan
+     * @param sql
+     *          the query
+     * @return the estimated number of groups, FedAggregator.DEFAULT_GROUPS if the column or the 
+     *          statistics of its table are unknown
+     */
+    private int estimateGroups (FedPlan plan, String sql) {
+        String column = FedAggregator.getGroupColumn(sql);
+        String[] tables = plan.getTables();
+        
+        if (column == null || tables.length == 0) {
+            return FedAggregator.DEFAULT_GROUPS;
+        }
+        
+        // The table of a qualified column, the only table otherwise
+        String table = tables.length == 1 ? tables[0] : null;
+        
+        for (String candidate : tables) {
+            if (column.toUpperCase().startsWith(candidate.toUpperCase() + ".")) {
+                table = candidate;
+            }
+        }
+        
+        FedStatistics statistics = table != null ? FedCatalog.getKnownStatistics(table) : null;
+        
+        if (statistics == null) {
+            return FedAggregator.DEFAULT_GROUPS;
+        }
+        
+        return (int) Math.min(statistics.getDistinct(column), Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Copy the rows of the distributed tables of a join stored on db2 and db3 and satisfying their own 
+     * conditions into temporal tables on db1, so that the join can be executed on db1.
+     * 
+     * @param plan
+     * @param sql
+     *          the query
+     * @return the query on the temporal tables
+     * @throws SQLException
+     */
+    private String copyToTempTables (FedPlan plan, String sql) throws SQLException {
+        FedJoin join = plan.getJoin();
+        
+        for (int t = 0; t < plan.getTables().length; t++) {
+            String table = plan.getTables()[t];
+            FedPartition partition = FedCatalog.getPartition(table);
+            
+            if (partition != null) { 
+                // ...and it's distributed
+                Integer right = partition.getRight();
+                String temp = FedCatalog.getTempName(session, t);
+                sql = FedCatalog.getTempQuery(sql, table, temp);
+                
+                String filter = join.getFilter(table) != null ? " WHERE " + join.getFilter(table) : "";
+                
+                // Clone table on db1 (replacing the copy of a previous join of this session)
+                FedCatalog.dropTempTable(stmt1, temp);
+                FedCatalog.createTempCopy(stmt1, temp, table, filter);
+                temp_tables.put(temp, new boolean[] { false, true, false, false });
+                
+                // Insert values from db2.table into db1.tempTable
+                FedCatalog.insertIntoTempTable(stmt1, temp, stmt2.executeQuery("SELECT * FROM " + table + filter));
+                
+                // Insert values from db3.table into db1.tempTable
+                if (right != null) {
+                    FedCatalog.insertIntoTempTable(stmt1, temp, stmt3.executeQuery("SELECT * FROM " + table + filter));
+                }
+            }
+        }
+        
+        return sql;
+    }
+    
+    /**
+     * Copy the rows of the smaller table of a join satisfying its own conditions into a temporal table 
+     * on every database of the plan (those holding rows of the other table), so that the join can be 
+     * executed locally on those databases.
+     * 
+     * @param plan
+     * @param sql
+     *          the query
+     * @return the query on the temporal table
+     * @throws SQLException
+     * @throws FedException
+     */
+    private String broadcast (FedPlan plan, String sql) throws SQLException, FedException {
+        String table = plan.getBuild();
+        String temp = FedCatalog.getTempName(session, Arrays.asList(plan.getTables()).indexOf(table));
+        String filter = plan.getJoin().getFilter(table) != null ? " WHERE " + plan.getJoin().getFilter(table) : "";
+        FedPartition partition = FedCatalog.getPartition(table);
+        boolean[] dbs = partition != null ? partition.getDatabases() : new boolean[] { false, true, false, false };
+        
+        // Read the rows of the table from its databases concurrently
+        ResultSet[] rs = executeQueries("SELECT * FROM " + table + filter, dbs);
+        ResultSetMetaData meta = rs[dbs[1] ? 1 : dbs[2] ? 2 : 3].getMetaData();
+        String columns = FedCatalog.getColumnDefinitions(meta);
+        int[] types = new int[meta.getColumnCount()];
+        List<Object[]> rows = new ArrayList<>();
+        
+        for (int i = 0; i < types.length; i++) {
+            types[i] = meta.getColumnType(i + 1);
+        }
+        
+        for (int db = 1; db <= 3; db++) {
+            while (rs[db] != null && rs[db].next()) {
+                Object[] row = new Object[types.length];
+                
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs[db].getObject(i + 1);
+                }
+                rows.add(row);
+            }
+        }
+        
+        FedLogger.trace("Broadcast join: copying " + rows.size() + " rows of " + table + " to " 
+                        + FedPlanner.getDbNames(plan.getDatabases()));
+        
+        // Create the temporal table and insert the rows on every database concurrently
+        List<Callable<Void>> tasks = new ArrayList<>();
+        
+        for (int db = 1; db <= 3; db++) {
+            if (plan.getDatabases()[db]) {
+                Statement stmt = getStatement(db);
+                
+                tasks.add(() -> {
+                    FedCatalog.dropTempTable(stmt, temp);
+                    FedCatalog.createTempTable(stmt, temp, columns);
+                    FedCatalog.insertIntoTempTable(stmt, temp, types, rows);
+                    return null;
+                });
+            }
+        }
+        temp_tables.put(temp, plan.getDatabases());
+        FedExecutor.invokeAll(tasks);
+        
+        for (ResultSet result : rs) {
+            if (result != null) result.close();
+        }
+        
+        return FedCatalog.getTempQuery(sql, table, temp);
+    }
+    
     /** Deprecated method. Use execute(String sql) instead.
      *  
      * @see fedjdbc.FedStatementInterface#executeUpdate(java.lang.String)
@@ -266,7 +391,15 @@ public class FedStatement implements FedStatementInterface {
     
     private int executeUpdate (String sql, boolean show_trace) throws FedException {
         String SQL = sql.toUpperCase().trim();
-
+        boolean ddl = SQL.startsWith("CREATE") || SQL.startsWith("DROP");
+        
+        closeStream();
+        
+        if (ddl) {
+            // DDL statements are executed outside the distributed transaction
+            suspendTransaction();
+        }
+        
         try {
             // Create and Drop Statements
             if (SQL.startsWith("CREATE") || SQL.startsWith("DROP") ) {
@@ -276,6 +409,10 @@ public class FedStatement implements FedStatementInterface {
                     // Statement: CREATE TABLE ...
                     table = table.substring(0, table.indexOf("(")).trim();
                     
+                    // Databases storing the table: db1, and db2 and db3 for distributed tables
+                    boolean[] dbs = new boolean[] { false, true, false, false };
+                    String metadata = null;
+                    
                     if (SQL.contains("HORIZONTAL")) {
                         // ... IN HORIZONTAL PARTITION
                         String val = SQL.substring(SQL.indexOf("HORIZONTAL") + 10).trim();
@@ -295,33 +432,56 @@ public class FedStatement implements FedStatementInterface {
                             left  = Integer.parseInt(val);
                         }
                         
-                        try {
-                            // Get Oracle valid statement
-                            sql = sql.substring(0, SQL.indexOf("HORIZONTAL")).trim();
-                            
-                            // Create table in db2
-                            FedLogger.trace("Creating " + table.toUpperCase() + " table in " + FedConfig.getDb2Name() + "...");
-                            stmt2.executeUpdate(sql);
-
-                            if (right != null) {
-                                // Create table in db3
-                                FedLogger.trace("Creating " + table.toUpperCase() + " table in " + FedConfig.getDb3Name() + "...");
-                                stmt3.executeUpdate(sql);
-                            }
-                            
-                            // Store metadata of the horizontal partitioned table in db1
-                            FedLogger.trace("Storing metadata for " + table.toUpperCase() + " table...");
-                            stmt1.executeUpdate("INSERT INTO " + FedCatalog.METADATA + " VALUES ('" 
-                                        + table + "', '" + fcolumn + "', " + left + ", " + right + ")");
-                        }
-                        catch (SQLException e) {
-                            throw new FedException(e);
+                        // Get Oracle valid statement
+                        sql = sql.substring(0, SQL.indexOf("HORIZONTAL")).trim();
+                        
+                        // Create table in db2, and in db3 if there is a right boundary
+                        dbs[2] = true;
+                        dbs[3] = right != null;
+                        metadata = "'" + table + "', '" + fcolumn + "', " + left + ", " + right;
+                    }
+                    
+                    else if (SQL.endsWith("REPLICATED")) {
+                        // ... REPLICATED
+                        // Get Oracle valid statement
+                        sql = sql.substring(0, SQL.lastIndexOf("REPLICATED")).trim();
+                        
+                        // Create table in db2 and db3 (metadata without partitioning column)
+                        dbs[2] = true;
+                        dbs[3] = true;
+                        metadata = "'" + table + "', NULL, NULL, NULL";
+                    }
+                    
+                    if (metadata != null && (FedCatalog.getPartition(table) != null || FedCatalog.isReplicated(table))) {
+                        // The table exists already: the DDL fails without touching its metadata
+                        metadata = null;
+                    }
+                    
+                    if (metadata != null) {
+                        // Store metadata of the distributed table in db1 before the DDL, which commits it
+                        FedLogger.trace("Storing metadata for " + table.toUpperCase() + " table...");
+                        stmt1.executeUpdate("INSERT INTO " + FedCatalog.METADATA + " VALUES (" + metadata + ")");
+                    }
+                    
+                    // Create table in the databases concurrently
+                    FedLogger.trace("Creating " + table.toUpperCase() + " table in " + FedPlanner.getDbNames(dbs) + "...");
+                    int row_count;
+                    
+                    try {
+                        row_count = executeUpdates(sql, dbs)[1];
+                    } catch (FedException e) {
+                        if (metadata != null) {
+                            // The table was not created: delete it from metadata
+                            stmt1.executeUpdate("DELETE FROM " + FedCatalog.METADATA + " WHERE ftable = '" + table + "'");
                         }
+                        throw e;
                     }
-
-                    // Create table in db1
-                    FedLogger.trace("Creating " + table.toUpperCase() + " table in " + FedConfig.getDb1Name() + "...");
-                    return stmt1.executeUpdate(sql);
+                    
+                    if (metadata != null) {
+                        // Add the new distributed table to the catalog cache
+                        FedCatalog.refreshPartition(stmt1, table);
+                    }
+                    return row_count;
                 }
                 else if (SQL.startsWith("DROP")) {
                     // Statement: DROP TABLE
@@ -329,66 +489,57 @@ public class FedStatement implements FedStatementInterface {
                         table = table.substring(0, table.indexOf("CASCADE")).trim();
                     }
                     
-                    ResultSet rs = FedCatalog.getMetadata(table);
+                    FedPartition partition = FedCatalog.getPartition(table);
+                    boolean[] dbs = new boolean[] { false, true, false, false };
                     
-                    if (rs != null && rs.next()) {
-                        Object right = rs.getObject("right");
-                        
-                        // The table is horizontal partitioned, delete it from metadata
+                    if (partition != null || FedCatalog.isReplicated(table)) {
+                        // The table is distributed, delete it from metadata
                         FedLogger.trace("Deleting metadata for " + table.toUpperCase() + " table...");
                         stmt1.executeUpdate("DELETE FROM " + FedCatalog.METADATA + " WHERE ftable = '" + table + "'");
+                        FedCatalog.removePartition(table);
                         
-                        // Drop table in db2
-                        FedLogger.trace("Dropping " + table.toUpperCase() + " table in " + FedConfig.getDb2Name() + "...");
-                        stmt2.executeUpdate(sql);
-                        
-                        if (right != null) {
-                            // Drop table in db3
-                            FedLogger.trace("Dropping " + table.toUpperCase() + " table in " + FedConfig.getDb3Name() + "...");
-                            stmt3.executeUpdate(sql);
-                        }
+                        // Drop table in db2, and in db3 unless a partitioned table has no right boundary
+                        dbs[2] = true;
+                        dbs[3] = partition == null || partition.getRight() != null;
                     }
-                    // Drop table in db1
-                    FedLogger.trace("Dropping " + table.toUpperCase() + " table in " + FedConfig.getDb1Name() + "...");
-                    return stmt1.executeUpdate(sql);
+                    
+                    // Drop table in the databases concurrently
+                    FedLogger.trace("Dropping " + table.toUpperCase() + " table in " + FedPlanner.getDbNames(dbs) + "...");
+                    FedCatalog.removeStatistics(table);
+                    return executeUpdates(sql, dbs)[1];
                 }
             }
             else if (SQL.startsWith("INSERT")) {
                 // Statement: INSERT INTO 
                 String table = SQL.substring(SQL.indexOf("INTO") + 4, SQL.indexOf("VALUES")).trim();
-                String fcolumn = "";
-                Integer left = null;
-                Object right = null;
-                boolean is_distributed = false;
+                int db = 1;
                 
-                ResultSet rs = FedCatalog.getMetadata(table);
+                FedPartition partition = FedCatalog.getPartition(table);
                 
-                if (rs != null && rs.next()) {
-                    is_distributed = true;
+                if (partition == null && FedCatalog.isReplicated(table)) {
+                    // Insert into every copy
+                    int row_count = executeReplicated(sql);
+                    FedCatalog.addModifications(table, row_count);
                     
-                    // Get metadata of the distributed table
-                    fcolumn = rs.getString("fcolumn");
-                    left    = rs.getInt("left");
-                    right   = rs.getObject("right");
+                    if (show_trace) FedLogger.info(row_count + " row inserted");
+                    return row_count;
+                }
+                
+                if (partition != null) {
+                    // Route the row to the database that owns the value of the partitioning column
+                    List<String> values = getInsertValues(sql);
                     
-                    // Insert into db2 
-                    stmt2.executeUpdate(sql);
-                    stmt2.executeUpdate("DELETE FROM " + table + " WHERE " + fcolumn + "<" + left);
-
-                    if (right != null) {
-                        // Insert into db3
-                        stmt2.executeUpdate("DELETE FROM " + table + " WHERE " + fcolumn + ">=" + right);
-                        stmt3.executeUpdate(sql);
-                        stmt3.executeUpdate("DELETE FROM " + table + " WHERE " + fcolumn + "<" + right);
+                    if (partition.getColumnIndex() > values.size()) {
+                        throw new FedException("Missing value for the partitioning column " 
+                                                + table + "." + partition.getColumn());
                     }
+                    db = partition.getDatabase(values.get(partition.getColumnIndex() - 1));
                 }
-
-                // Insert into db1
-                int row_count = stmt1.executeUpdate(sql);
-                if (is_distributed) {
-                    stmt1.executeUpdate("DELETE FROM " + table + " WHERE " + fcolumn + ">=" + left);
-                }
-
+                
+                // Insert into the owning db
+                int row_count = getStatement(db).executeUpdate(sql);
+                FedCatalog.addModifications(table, row_count);
+                
                 if (show_trace) FedLogger.info(row_count + " row inserted");
                 return row_count;
             }
@@ -401,101 +552,64 @@ public class FedStatement implements FedStatementInterface {
                 }
                 
                 int row_count = 0;
-                ResultSet rs = FedCatalog.getMetadata(table);
+                FedPartition partition = FedCatalog.getPartition(table);
                 
-                if (rs != null && rs.next()) {
-                    Object right = rs.getObject("right");
-                    
-                    // Delete from db2 
-                    row_count += stmt2.executeUpdate(sql);
-                    
-                    if (right != null) {
-                        // Delete from db3
-                        row_count += stmt3.executeUpdate(sql);
-                    }
+                if (partition == null && FedCatalog.isReplicated(table)) {
+                    // Delete from every copy
+                    row_count = executeReplicated(sql);
+                    FedCatalog.addModifications(table, row_count);
+                    return row_count;
                 }
                 
-                // Delete from db1
-                return row_count + stmt1.executeUpdate(sql);
+                // Delete only from the databases that can hold rows satisfying the condition
+                boolean[] dbs = partition != null ? FedPlanner.getDatabases(sql, partition) : new boolean[] { false, true, false, false };
+                
+                for (int count : executeUpdates(sql, dbs)) {
+                    row_count += count;
+                }
+                
+                FedCatalog.addModifications(table, row_count);
+                return row_count;
             }
             else if (SQL.startsWith("UPDATE")) {
                 // Statement: UPDATE
                 String table = SQL.substring(SQL.indexOf("UPDATE") + 6, SQL.indexOf("SET")).trim();
-                String fcolumn = "";
-                Integer left = null;
-                Object right = null;
                 boolean do_refactor = false;
                 
-                int up1 = 0;
-                int up2 = 0;
-                int up3 = 0;
+                FedPartition partition = FedCatalog.getPartition(table);
                 
-                ResultSet rs = FedCatalog.getMetadata(table);
+                if (partition == null && FedCatalog.isReplicated(table)) {
+                    // Update every copy
+                    int row_count = executeReplicated(sql);
+                    FedCatalog.addModifications(table, row_count);
+                    return row_count;
+                }
                 
-                if (rs != null && rs.next()) {
-                    String attribute = SQL.substring(SQL.indexOf("SET") + 3, SQL.indexOf("=")).trim();
-                    
-                    // Get metadata of the distributed table
-                    fcolumn = rs.getString("fcolumn");
-                    left    = rs.getInt("left");
-                    right = rs.getObject("right");
+                if (partition != null) {
+                    // Is the partitioning column one of the updated columns?
+                    String set = SQL.substring(SQL.indexOf("SET") + 3, SQL.contains(" WHERE ") ? SQL.indexOf(" WHERE ") : SQL.length());
                     
-                    do_refactor = attribute.equals(fcolumn); 
-                    
-                    // Update in db2 
-                    up2 = stmt2.executeUpdate(sql);
-                    
-                    if (right != null) {
-                        // Update in db3
-                        up3 = stmt3.executeUpdate(sql);
-                    }
+                    do_refactor = set.matches("(?s)(.*,)?\\s*(" + table + "\\.)?" + partition.getColumn() + "\\s*=.*");
                 }
                 
-                // Update in db1
-                up1 = stmt1.executeUpdate(sql);
+                // Update only in the databases that can hold rows satisfying the condition
+                boolean[] dbs = partition != null ? FedPlanner.getDatabases(sql, partition) : new boolean[] { false, true, false, false };
+                
+                int[] updated = executeUpdates(sql, dbs);
                 
                 if (do_refactor) {
-                    // The row(s) shall be moved to other partition
-                    if (up1 > 0) {
-                        // Refactor db1
-                        String select = "SELECT * FROM " + table + " WHERE " + fcolumn + ">=" + left; 
-                        List<String> statements = getRefactorStatements(stmt1.executeQuery(select), table);
-                        
-                        for (String dst : statements) {
-                            if (dst.startsWith("DELETE")) 
-                                stmt1.executeUpdate(dst);
-                            else 
-                                this.executeUpdate(dst, false);
-                        }
-                    }
-                    if (up2 > 0) {
-                        // Refactor db2
-                        String select = "SELECT * FROM " + table + " WHERE " + fcolumn + "<" + left 
-                                        + (right != null ? " OR " + fcolumn + ">=" + right : ""); 
-                        List<String> statements = getRefactorStatements(stmt2.executeQuery(select), table);
-                        
-                        for (String dst : statements) {
-                            if (dst.startsWith("DELETE")) 
-                                stmt2.executeUpdate(dst);
-                            else 
-                                this.executeUpdate(dst, false);
-                        }
-                    }
-                    if (up3 > 0) {
-                        // Refactor db3
-                        String select = "SELECT * FROM " + table + " WHERE " + fcolumn + "<" + right; 
-                        List<String> statements = getRefactorStatements(stmt3.executeQuery(select), table);
-                        
-                        for (String dst : statements) {
-                            if (dst.startsWith("DELETE")) 
-                                stmt3.executeUpdate(dst);
-                            else 
-                                this.executeUpdate(dst, false);
+                    // The updated rows that belong to another partition are moved to it
+                    for (int db = 1; db <= 3; db++) {
+                        if (updated[db] > 0) {
+                            migrate(table, partition, db);
                         }
                     }
                 }
                 
-                return up1 + up2 + up3;
+                int row_count = updated[1] + updated[2] + updated[3];
+                
+                FedCatalog.addModifications(table, row_count);
+                return row_count;
             }
             else if (SQL.equals("COMMIT")) {
                 // Command: COMMIT
@@ -513,6 +627,10 @@ public class FedStatement implements FedStatementInterface {
             }
         } catch (SQLException e) {
             throw new FedException(e);
+        } finally {
+            if (ddl) {
+                resumeTransaction();
+            }
         }
         
         // Nothing was executed
@@ -521,36 +639,338 @@ public class FedStatement implements FedStatementInterface {
     }
 
 
-    private List<String> getRefactorStatements (ResultSet rsrf, String table) throws SQLException {
-        /* TODO: Want to fork it?
-         * - Implement delete at once, everything not satisfying the distribution constraint
-         * - Implement inserts with PreparedStatement to improve performance
-         */
-        
-        List<String> statements = new ArrayList<>();
-        
-        while (rsrf != null && rsrf.next()) {
-            ResultSetMetaData meta = rsrf.getMetaData();
-            String delete = "DELETE FROM " + table + " WHERE ";
-            String insert = "INSERT INTO " + table + " VALUES (";
+    /**
+     * Return the literal values of an INSERT INTO ... VALUES (...) statement in column order. 
+     * Quoted strings are returned with their quotes.
+     * 
+     * @param sql
+     *          the INSERT statement
+     * @return the list of values
+     */
+    public static List<String> getInsertValues (String sql) {
+        List<String> values = new ArrayList<>();
+        String list = sql.substring(sql.toUpperCase().indexOf("VALUES") + 6).trim();
+        
+        list = list.substring(list.indexOf("(") + 1, list.lastIndexOf(")"));
+        
+        boolean quoted = false;
+        int start = 0;
+        
+        for (int i = 0; i < list.length(); i++) {
+            char c = list.charAt(i);
             
-            for (int i = 1, colcount = meta.getColumnCount(); i <= colcount; i++) {
-                boolean is_int = meta.getColumnType(i) != Types.VARCHAR; 
-                delete += meta.getColumnName(i) + "=" + (is_int ? rsrf.getInt(i) : rsrf.getString(i) == null ? "null" : 
-                                                                                            "'" + rsrf.getString(i) + "'")
-                          + (i+1 <= colcount ? " AND " : "");
-                insert += (is_int ? rsrf.getInt(i) : rsrf.getString(i) == null ? "null" : 
-                                                                                 "'" + rsrf.getString(i) + "'")
-                        + (i+1 <= colcount ? ", " : ")");
+            if (c == '\'') {
+                quoted = !quoted;
+            }
+            else if (c == ',' && !quoted) {
+                values.add(list.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        values.add(list.substring(start).trim());
+        
+        return values;
+    }
+    
+    /**
+     * Execute a query concurrently on the given databases.
+     * 
+     * @param sql
+     * @param dbs
+     *          dbs[i] is true if the query shall be executed on the database i (1, 2 or 3)
+     * @return the ResultSet objects of the databases (index 1 to 3), null if a database was not queried
+     * @throws FedException if the query fails on any database
+     */
+    private ResultSet[] executeQueries (String sql, boolean[] dbs) throws FedException {
+        List<Callable<ResultSet>> tasks = new ArrayList<>();
+        ResultSet[] rs = new ResultSet[4];
+        
+        for (int db = 1; db <= 3; db++) {
+            if (dbs[db]) {
+                Statement stmt = getStatement(db);
+                tasks.add(() -> stmt.executeQuery(sql));
             }
+        }
+        
+        List<ResultSet> results = FedExecutor.invokeAll(tasks);
+        
+        for (int db = 1, i = 0; db <= 3; db++) {
+            rs[db] = dbs[db] ? results.get(i++) : null;
+        }
+        
+        return rs;
+    }
+    
+    /**
+     * Execute a data manipulation or definition statement concurrently on the given databases. 
+     * The statement is executed on every database even if it fails on some of them.
+     * 
+     * @param sql
+     * @param dbs
+     *          dbs[i] is true if the statement shall be executed on the database i (1, 2 or 3)
+     * @return the numbers of affected rows of the databases (index 1 to 3), 0 if a database was not used
+     * @throws FedException the error of the first failed database (in the order db1, db2, db3)
+     */
+    private int[] executeUpdates (String sql, boolean[] dbs) throws FedException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        int[] row_counts = new int[4];
+        
+        for (int db = 1; db <= 3; db++) {
+            if (dbs[db]) {
+                Statement stmt = getStatement(db);
+                tasks.add(() -> stmt.executeUpdate(sql));
+            }
+        }
+        
+        List<Integer> results = FedExecutor.invokeAll(tasks);
+        
+        for (int db = 1, i = 0; db <= 3; db++) {
+            row_counts[db] = dbs[db] ? results.get(i++) : 0;
+        }
+        
+        return row_counts;
+    }
+    
+    /**
+     * Execute a data manipulation statement concurrently on every copy of a replicated table. If it 
+     * fails on some copies, it is undone on the others (back to a savepoint) so that all the copies 
+     * stay equal. This isn't possible with auto commit or in a distributed transaction (XA): then the 
+     * error names the databases whose copy was modified.
+     * 
+     * @param sql
+     * @return the number of rows affected on db1 (every copy holds the same rows)
+     * @throws FedException the error of the first failed database (in the order db1, db2, db3)
+     */
+    private int executeReplicated (String sql) throws FedException {
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        Savepoint[] savepoints = new Savepoint[4];
+        SQLException[] errors = new SQLException[4];
+        int[] row_counts = new int[4];
+        
+        try {
+            for (int db = 1; db <= 3; db++) {
+                Connection conn = getStatement(db).getConnection();
+                
+                if (!conn.getAutoCommit() && (fconn == null || !fconn.isTransactionActive())) {
+                    // Savepoints are not allowed in a distributed transaction (XA)
+                    savepoints[db] = conn.setSavepoint();
+                }
+            }
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+        
+        for (int db = 1; db <= 3; db++) {
+            Statement stmt = getStatement(db);
+            int copy = db;
             
-            statements.add(delete);
-            statements.add(insert);
+            tasks.add(() -> {
+                try {
+                    row_counts[copy] = stmt.executeUpdate(sql);
+                } catch (SQLException e) {
+                    errors[copy] = e;
+                }
+                return row_counts[copy];
+            });
+        }
+        
+        FedExecutor.invokeAll(tasks);
+        
+        SQLException error = errors[1] != null ? errors[1] : errors[2] != null ? errors[2] : errors[3];
+        
+        if (error == null) {
+            return row_counts[1];
+        }
+        
+        // Undo the statement on the copies it modified
+        boolean[] modified = new boolean[4];
+        
+        for (int db = 1; db <= 3; db++) {
+            if (errors[db] == null) {
+                try {
+                    if (savepoints[db] != null) {
+                        getStatement(db).getConnection().rollback(savepoints[db]);
+                    }
+                    else {
+                        modified[db] = true;
+                    }
+                } catch (SQLException e) {
+                    modified[db] = true;
+                }
+            }
+        }
+        
+        if (modified[1] || modified[2] || modified[3]) {
+            throw new FedException(new FedException(error).getMessage() + " (the statement was executed on " 
+                                   + FedPlanner.getDbNames(modified) + ": the copies of the replicated table differ" 
+                                   + (fconn != null && fconn.isTransactionActive() ? ", roll back the transaction)" : ")"));
         }
         
-        return statements;
+        throw new FedException(error);
+    }
+    
+    /**
+     * Stop reading the result of the last query. The Statement objects are reused by the next 
+     * statement, which would close the ResultSet objects still being read.
+     * 
+     * @throws FedException
+     */
+    private void closeStream () throws FedException {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+        
+        if (!temp_tables.isEmpty()) {
+            dropTempTables();
+        }
+    }
+    
+    /**
+     * Drop the temporal tables of the last join on the databases holding them, outside the 
+     * distributed transaction.
+     * 
+     * @throws FedException
+     */
+    private void dropTempTables () throws FedException {
+        suspendTransaction();
+        
+        try {
+            for (Map.Entry<String, boolean[]> temp : temp_tables.entrySet()) {
+                for (int db = 1; db <= 3; db++) {
+                    if (temp.getValue()[db]) {
+                        FedCatalog.dropTempTable(getStatement(db), temp.getKey());
+                    }
+                }
+            }
+            temp_tables.clear();
+        } finally {
+            resumeTransaction();
+        }
+    }
+    
+    /**
+     * Suspend the distributed transaction of the FedConnection (XA only).
+     * 
+     * @throws FedException
+     */
+    private void suspendTransaction () throws FedException {
+        if (fconn != null) {
+            fconn.suspendTransaction();
+        }
+    }
+    
+    /**
+     * Resume the distributed transaction of the FedConnection (XA only).
+     * 
+     * @throws FedException
+     */
+    private void resumeTransaction () throws FedException {
+        if (fconn != null) {
+            fconn.resumeTransaction();
+        }
+    }
+    
+    /**
+     * Return the Statement object of the database with the given number.
+     * 
+     * @param db
+     *          1, 2 or 3
+     * @return the Statement of the database
+     */
+    private Statement getStatement (int db) {
+        return db == 3 ? stmt3 : db == 2 ? stmt2 : stmt1;
     }
 
+    /**
+     * Move the rows of a database that belong to another partition (after an UPDATE of the 
+     * partitioning column) to the databases owning them. The rows are read once, inserted into 
+     * their databases in batches (FedPreparedStatement) and deleted from the source database with a 
+     * single DELETE. Nothing is committed: the move is part of the current transaction.
+     * 
+     * @param table
+     * @param partition
+     * @param db
+     *          the source database (1, 2 or 3)
+     * @return the number of moved rows
+     * @throws SQLException
+     * @throws FedException if a row can't be inserted into its database
+     */
+    private int migrate (String table, FedPartition partition, int db) throws SQLException, FedException {
+        String condition = partition.getMisplacedCondition(db);
+        Statement source = getStatement(db);
+        
+        ResultSet rs = source.executeQuery("SELECT * FROM " + table + " WHERE " + condition);
+        ResultSetMetaData meta = rs.getMetaData();
+        int columns = meta.getColumnCount();
+        int moved = 0;
+        
+        FedPreparedStatement insert = new FedPreparedStatement(stmt1.getConnection(), stmt2.getConnection(), 
+                                                               stmt3.getConnection(), fconn, "INSERT INTO " + table + " VALUES (" 
+                                                               + String.join(", ", Collections.nCopies(columns, "?")) + ")");
+        try {
+            // Insert the rows into their databases while they are read
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    Object value = getValue(rs, i, meta.getColumnType(i));
+                    
+                    if (value == null) {
+                        insert.setNull(i, meta.getColumnType(i));
+                    }
+                    else if (value instanceof BigDecimal) {
+                        BigDecimal number = (BigDecimal) value;
+                        
+                        if (number.stripTrailingZeros().scale() <= 0 
+                                && number.abs().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) <= 0) {
+                            insert.setInt(i, number.intValue());
+                        }
+                        else {
+                            insert.setBigDecimal(i, number);
+                        }
+                    }
+                    else if (value instanceof String) {
+                        insert.setString(i, (String) value);
+                    }
+                    else {
+                        insert.setObject(i, value);
+                    }
+                }
+                insert.addBatch();
+                moved++;
+            }
+            rs.close();
+            
+            int[] counts = insert.executeBatch();
+            
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == Statement.EXECUTE_FAILED) {
+                    throw new FedException("Moving a row of " + table + " failed: " + insert.getErrors()[i]);
+                }
+            }
+        } finally {
+            insert.close();
+        }
+        
+        // Remove the moved rows from the source database at once
+        source.executeUpdate("DELETE FROM " + table + " WHERE " + condition);
+        
+        FedLogger.trace("Moved " + moved + " rows of " + table + " from " + FedConfig.getDbName(db));
+        return moved;
+    }
+
+    /* Value of a column to be copied: numbers as BigDecimal, dates as Timestamp, anything else as String */
+    private static Object getValue (ResultSet rs, int column, int type) throws SQLException {
+        switch (type) {
+            case Types.NUMERIC: case Types.DECIMAL: case Types.INTEGER: case Types.BIGINT:
+            case Types.SMALLINT: case Types.TINYINT:
+                return rs.getBigDecimal(column);
+            case Types.DATE: case Types.TIMESTAMP: case Types.TIME:
+                return rs.getTimestamp(column);
+            default:
+                return rs.getString(column);
+        }
+    }
+    
     /* (non-Javadoc)
      * @see fedjdbc.FedStatementInterface#getConnection()
      */
@@ -564,6 +984,8 @@ public class FedStatement implements FedStatementInterface {
      */
     @Override
     public void close () throws FedException {
+        closeStream();
+        
         try {
             if (stmt1 != null) stmt1.close();
             if (stmt2 != null) stmt2.close();
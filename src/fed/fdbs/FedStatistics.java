@@ -0,0 +1,312 @@
+package fed.fdbs;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statistics of a table used by the FedPlanner to estimate the cost of a query: the number of rows
+ * stored on each database, the average row width and, for every column, the number of distinct
+ * values and the minimum and maximum value (numeric columns only).
+ *
+ * They are gathered with one aggregate query per database (executed concurrently) and kept in the
+ * FedCatalog until too many rows of the table were modified (see isStale).
+ *
+ */
+public class FedStatistics {
+    // Estimated width of a number (bytes)
+    private static final int NUMBER_WIDTH = 8;
+
+    // Modified rows (percentage of the rows) after which the statistics are gathered again
+    private static final int STALE_PERCENT = 10;
+
+    // Default selectivity of comparisons that can't be estimated from the statistics
+    private static final double EQUALITY_SELECTIVITY = 0.01;
+    private static final double RANGE_SELECTIVITY    = 0.05;
+
+    private final String table;
+    private final long[] rows = new long[4];
+    private final int width;
+    private final Map<String, Long> distinct = new HashMap<>();
+    private final Map<String, BigDecimal> min = new HashMap<>();
+    private final Map<String, BigDecimal> max = new HashMap<>();
+    private final AtomicLong modified = new AtomicLong();
+
+
+    /* Create an empty FedStatistics object for the columns of a table */
+    private FedStatistics (String table, int width) {
+        this.table = table;
+        this.width = width;
+    }
+
+
+    /**
+     * Gather the statistics of a table on the databases holding its rows.
+     *
+     * @param stmt
+     *          the Statement objects of the databases (index 1 to 3)
+     * @param table
+     * @param dbs
+     *          dbs[i] is true if the database i (1, 2 or 3) holds rows of the table
+     * @param partition
+     *          the partitioning of the table or null: the distinct values of the partitioning column
+     *          of the databases are added, those of other columns can be stored on several databases
+     * @return the statistics of the table
+     * @throws FedException
+     */
+    public static FedStatistics gather (Statement[] stmt, String table, boolean[] dbs, FedPartition partition)
+                                                                                        throws FedException {
+        int first = dbs[1] ? 1 : dbs[2] ? 2 : 3;
+        List<String> columns = new ArrayList<>();
+        List<Boolean> numeric = new ArrayList<>();
+        int width = 0;
+        
+        // Columns of the table
+        try {
+            ResultSet rs = stmt[first].executeQuery("SELECT * FROM " + table + " WHERE 1 = 0");
+            ResultSetMetaData meta = rs.getMetaData();
+            
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                boolean number = isNumeric(meta.getColumnType(i));
+                
+                columns.add(meta.getColumnName(i).toUpperCase());
+                numeric.add(number);
+                width += number ? NUMBER_WIDTH : Math.max(1, meta.getPrecision(i) / 2);
+            }
+            rs.close();
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+        
+        // One aggregate query per database: COUNT(*), then COUNT(DISTINCT c), MIN(c), MAX(c) per column
+        String query = "SELECT COUNT(*)";
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            query += ", COUNT(DISTINCT " + column + ")"
+                     + (numeric.get(i) ? ", MIN(" + column + "), MAX(" + column + ")" : "");
+        }
+        query += " FROM " + table;
+        
+        List<Callable<Object[]>> tasks = new ArrayList<>();
+        List<Integer> queried = new ArrayList<>();
+        
+        for (int db = 1; db <= 3; db++) {
+            if (dbs[db]) {
+                final Statement st = stmt[db];
+                final String sql = query;
+                
+                queried.add(db);
+                tasks.add(() -> {
+                    ResultSet rs = st.executeQuery(sql);
+                    Object[] values = new Object[rs.getMetaData().getColumnCount()];
+                    
+                    if (rs.next()) {
+                        for (int i = 0; i < values.length; i++) {
+                            values[i] = rs.getBigDecimal(i + 1);
+                        }
+                    }
+                    rs.close();
+                    
+                    return values;
+                });
+            }
+        }
+        
+        List<Object[]> results = FedExecutor.invokeAll(tasks);
+        FedStatistics statistics = new FedStatistics(table, width);
+        
+        for (int r = 0; r < results.size(); r++) {
+            Object[] values = results.get(r);
+            int index = 0;
+            
+            statistics.rows[queried.get(r)] = getLong(values[index++]);
+            
+            for (int i = 0; i < columns.size(); i++) {
+                String column = columns.get(i);
+                long count = getLong(values[index++]);
+                Long total = statistics.distinct.get(column);
+                boolean partitioned = partition != null && column.equals(partition.getColumn());
+                
+                statistics.distinct.put(column, total == null ? count : partitioned ? total + count : Math.max(total, count));
+                
+                if (numeric.get(i)) {
+                    BigDecimal low  = (BigDecimal) values[index++];
+                    BigDecimal high = (BigDecimal) values[index++];
+                    BigDecimal min  = statistics.min.get(column);
+                    BigDecimal max  = statistics.max.get(column);
+                    
+                    if (low != null && (min == null || low.compareTo(min) < 0)) {
+                        statistics.min.put(column, low);
+                    }
+                    if (high != null && (max == null || high.compareTo(max) > 0)) {
+                        statistics.max.put(column, high);
+                    }
+                }
+            }
+        }
+        
+        FedLogger.trace("Statistics of " + table + ": " + statistics.getRows() + " rows, " + width + " bytes per row");
+        
+        return statistics;
+    }
+
+
+    /**
+     * @return the number of rows of the table on all the databases
+     */
+    public long getRows () {
+        return rows[1] + rows[2] + rows[3];
+    }
+
+    /**
+     * @param db
+     *          1, 2 or 3
+     * @return the number of rows of the table on a database
+     */
+    public long getRows (int db) {
+        return rows[db];
+    }
+
+    /**
+     * @return the estimated average width of a row (bytes)
+     */
+    public int getWidth () {
+        return width;
+    }
+
+    /**
+     * Return the number of distinct values of a column.
+     *
+     * @param column
+     *          qualified or not qualified column
+     * @return the number of distinct values, at least 1
+     */
+    public long getDistinct (String column) {
+        Long count = distinct.get(getName(column));
+        
+        return Math.max(1, count != null ? count : getRows());
+    }
+
+    /**
+     * Estimate the fraction of the rows of the table satisfying a condition on its columns. Conjuncts
+     * are considered independent. Comparisons between two columns or on unknown columns use default
+     * selectivities.
+     *
+     * @param predicate
+     *          the condition or null
+     * @return the selectivity, between 0 and 1
+     */
+    public double getSelectivity (FedPredicate predicate) {
+        if (predicate == null) {
+            return 1;
+        }
+        
+        if (!predicate.isComparison()) {
+            double s1 = getSelectivity(predicate.getLeft());
+            double s2 = getSelectivity(predicate.getRight());
+            
+            return predicate.getOperator().equals(FedPredicate.AND) ? s1 * s2 : s1 + s2 - s1 * s2;
+        }
+        
+        String op = predicate.getOperator();
+        String column = predicate.getOperand1();
+        String literal = predicate.getOperand2();
+        
+        if (!FedPredicate.isColumn(column)) {
+            // literal op column: swap the operands
+            column  = predicate.getOperand2();
+            literal = predicate.getOperand1();
+            op = op.startsWith("<") ? op.replace("<", ">") : op.startsWith(">") ? op.replace(">", "<") : op;
+        }
+        
+        if (!FedPredicate.isColumn(column) || FedPredicate.isColumn(literal) || !distinct.containsKey(getName(column))) {
+            return op.equals("=") ? EQUALITY_SELECTIVITY : RANGE_SELECTIVITY;
+        }
+        
+        double equal = 1.0 / getDistinct(column);
+        
+        if (op.equals("=")) {
+            return equal;
+        }
+        if (op.equals("<>") || op.equals("!=")) {
+            return 1 - equal;
+        }
+        
+        // Range: fraction of the interval [min, max] of the column, assuming uniform values
+        BigDecimal value = FedPredicate.toNumber(literal);
+        BigDecimal low   = min.get(getName(column));
+        BigDecimal high  = max.get(getName(column));
+        
+        if (value == null || low == null || high == null) {
+            return RANGE_SELECTIVITY;
+        }
+        if (high.compareTo(low) == 0) {
+            return matches(low, op, value) ? 1 : 0;
+        }
+        
+        double fraction = (value.doubleValue() - low.doubleValue()) / (high.doubleValue() - low.doubleValue());
+        fraction = Math.min(1, Math.max(0, op.startsWith("<") ? fraction : 1 - fraction));
+        
+        return Math.min(1, fraction + (op.contains("=") ? equal : 0));
+    }
+
+    /**
+     * Register modified (inserted, updated or deleted) rows of the table.
+     *
+     * @param count
+     *          the number of modified rows
+     */
+    public void addModifications (long count) {
+        modified.addAndGet(count);
+    }
+
+    /**
+     * @return true if more than STALE_PERCENT percent of the rows were modified since the statistics
+     *          were gathered
+     */
+    public boolean isStale () {
+        return modified.get() * 100 > Math.max(getRows(), 1) * STALE_PERCENT;
+    }
+
+    public String getTable () {
+        return table;
+    }
+
+
+    /* Column name without table name */
+    private static String getName (String column) {
+        String name = column.toUpperCase();
+        
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    /* Evaluate "value op constant" */
+    private static boolean matches (BigDecimal value, String op, BigDecimal constant) {
+        int cmp = value.compareTo(constant);
+        
+        return op.equals("<") ? cmp < 0 : op.equals("<=") ? cmp <= 0 : op.equals(">") ? cmp > 0 : cmp >= 0;
+    }
+
+    private static long getLong (Object value) {
+        return value != null ? ((BigDecimal) value).longValue() : 0;
+    }
+
+    private static boolean isNumeric (int type) {
+        switch (type) {
+            case Types.NUMERIC: case Types.DECIMAL: case Types.INTEGER: case Types.BIGINT:
+            case Types.SMALLINT: case Types.TINYINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
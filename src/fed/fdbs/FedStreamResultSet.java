@@ -0,0 +1,425 @@
+package fed.fdbs;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A FedResultSet that reads the ResultSet objects of the databases concurrently. Every ResultSet
+ * is drained by a background fetcher into a bounded buffer (FedConfig.prefetchsize rows per
+ * database), so the databases are read while the rows are being processed.
+ *
+ * In ordered mode the rows are returned database by database (db1, db2, db3) like FedResultSet.
+ * In unordered mode the rows are returned as soon as any database delivered them.
+ * If the query has an ORDER BY clause, the sorted rows of the databases are merged (k-way merge 
+ * with a heap over the current row of each database), so the whole result is sorted.
+ * 
+ * If the query has a row limit, the queries still running on the databases are cancelled as soon as 
+ * the limit is reached.
+ *
+ */
+public class FedStreamResultSet extends FedResultSet {
+    // Rows passed from a fetcher to the consumer at once
+    private static final int CHUNK_SIZE = 256;
+
+    private final String[] names;
+    private final int[] types;
+    private final boolean ordered;
+    private final int columns;
+
+    // Buffers of the databases (index 1 to 3). In unordered mode all of them are the same queue.
+    private final List<BlockingQueue<Chunk>> buffers = new ArrayList<>();
+    private final List<Future<Void>> fetchers = new ArrayList<>();
+    private final List<Statement> statements = new ArrayList<>();
+    private final int[] dbs;
+
+    private int current;                // index in dbs of the database being read (ordered mode)
+    private int finished;               // number of databases completely read
+    private Chunk chunk;
+    private int row_index;
+    private Object[] row;
+    private long remaining;
+    private volatile boolean closed;
+    
+    // Merge of sorted rows: cursors of the databases ordered by their current row
+    private final PriorityQueue<Cursor> heap;
+    private Cursor last;
+
+
+    /**
+     * Create a FedStreamResultSet object and start reading the ResultSet objects.
+     *
+     * @param rs
+     *          the ResultSet objects of the databases (index 1 to 3), null if a database was not queried
+     * @param ordered
+     *          true to return the rows database by database
+     * @param order
+     *          the ORDER BY clause of the query or null
+     * @param limit
+     *          the maximum number of rows to be returned or FedLimit.NONE
+     * @throws FedException
+     */
+    public FedStreamResultSet (ResultSet[] rs, boolean ordered, FedOrder order, long limit) throws FedException {
+        super();
+        this.ordered = ordered || order != null;
+        this.remaining = limit;
+        
+        List<Integer> queried = new ArrayList<>();
+        for (int db = 1; db <= 3; db++) {
+            if (rs[db] != null) queried.add(db);
+        }
+        
+        this.dbs = new int[queried.size()];
+        for (int i = 0; i < dbs.length; i++) {
+            dbs[i] = queried.get(i);
+        }
+        
+        try {
+            // Columns are read before the fetchers start using the ResultSet objects
+            ResultSetMetaData meta = rs[dbs[0]].getMetaData();
+            
+            names = new String[meta.getColumnCount()];
+            types = new int[names.length];
+            
+            for (int i = 0; i < names.length; i++) {
+                names[i] = meta.getColumnName(i + 1);
+                types[i] = meta.getColumnType(i + 1);
+            }
+            
+            for (int db : dbs) {
+                statements.add(rs[db].getStatement());
+            }
+        } catch (SQLException e) {
+            throw new FedException(e);
+        }
+        
+        this.columns = names.length - (order != null ? order.getHiddenColumns() : 0);
+        
+        if (order != null && dbs.length > 1) {
+            Comparator<Object[]> comparator = order.getComparator(names);
+            
+            // Equal rows are returned in database order
+            heap = new PriorityQueue<>(Math.max(1, dbs.length), (cursor1, cursor2) -> {
+                int cmp = comparator.compare(cursor1.current(), cursor2.current());
+                return cmp != 0 ? cmp : cursor1.index - cursor2.index;
+            });
+        }
+        else {
+            heap = null;
+        }
+        
+        int capacity = Math.max(1, FedConfig.prefetchsize / CHUNK_SIZE);
+        BlockingQueue<Chunk> shared = this.ordered ? null : new ArrayBlockingQueue<Chunk>(capacity * dbs.length);
+        
+        for (int i = 0; i < dbs.length; i++) {
+            BlockingQueue<Chunk> buffer = this.ordered ? new ArrayBlockingQueue<Chunk>(capacity) : shared;
+            ResultSet result = rs[dbs[i]];
+            
+            buffers.add(buffer);
+            fetchers.add(FedExecutor.submit(() -> fetch(result, buffer)));
+        }
+        
+        row_index = -1;
+    }
+
+
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#next()
+     */
+    @Override
+    public boolean next () throws FedException {
+        if (remaining == 0) {
+            // Row limit reached: stop reading the databases
+            close();
+            return false;
+        }
+        if (remaining > 0) {
+            remaining--;
+        }
+        if (heap != null) {
+            return nextMerged();
+        }
+        
+        row_index++;
+        
+        while (chunk == null || row_index >= chunk.rows.size()) {
+            if (closed || finished == dbs.length) {
+                chunk = null;
+                row = null;
+                return false;
+            }
+            
+            chunk = take(ordered ? current : 0);
+            row_index = 0;
+            
+            if (chunk.last) {
+                finished++;
+                current++;
+            }
+        }
+        
+        row = chunk.rows.get(row_index);
+        return true;
+    }
+    
+    /* Next row of the merge of the sorted rows of the databases */
+    private boolean nextMerged () throws FedException {
+        if (closed) {
+            row = null;
+            return false;
+        }
+        
+        if (last == null) {
+            // First call: read the first row of every database
+            for (int i = 0; i < dbs.length; i++) {
+                Cursor cursor = new Cursor(i);
+                
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+        else if (last.advance()) {
+            heap.add(last);
+        }
+        
+        last = heap.poll();
+        row  = last != null ? last.current() : null;
+        
+        if (last == null) {
+            // Keep the merge finished
+            last = new Cursor(-1);
+        }
+        
+        return row != null;
+    }
+    
+    /* Take the next chunk of a buffer, waiting for the fetcher if it's empty */
+    private Chunk take (int buffer) throws FedException {
+        Chunk next;
+        
+        try {
+            next = buffers.get(buffer).take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FedException("FDBS fetch interrupted");
+        }
+        
+        if (next.error != null) {
+            close();
+            throw next.error;
+        }
+        
+        return next;
+    }
+
+    /* (non-Javadoc)
+     * @see fed.fdbs.FedResultSet#getValue(int)
+     */
+    @Override
+    public Object getValue (int colIndex) throws FedException {
+        Object value = getObject(colIndex);
+        
+        return value == null || types[colIndex - 1] == Types.VARCHAR ? value : getInt(colIndex);
+    }
+
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getString(int)
+     */
+    @Override
+    public String getString (int columnIndex) throws FedException {
+        Object value = getObject(columnIndex);
+        
+        return value != null ? value.toString() : null;
+    }
+
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getInt(int)
+     */
+    @Override
+    public int getInt (int columnIndex) throws FedException {
+        Object value = getObject(columnIndex);
+        
+        try {
+            return value instanceof Number ? ((Number) value).intValue() :
+                   value != null ? Integer.parseInt(value.toString().trim()) : 0;
+        } catch (NumberFormatException e) {
+            throw new FedException("Invalid number " + value + " in column " + names[columnIndex - 1]);
+        }
+    }
+
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getColumnCount()
+     */
+    @Override
+    public int getColumnCount () {
+        return columns;
+    }
+
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getColumnName(int)
+     */
+    @Override
+    public String getColumnName (int index) {
+        return names[index - 1];
+    }
+
+    /* (non-Javadoc)
+     * @see fedjdbc.FedResultSetInterface#getColumnType(int)
+     */
+    @Override
+    public int getColumnType (int index) {
+        return types[index - 1];
+    }
+
+    /**
+     * Stop the fetchers and wait until they closed their ResultSet objects. The queries of the 
+     * fetchers still reading are cancelled.
+     *
+     * @see fedjdbc.FedResultSetInterface#close()
+     */
+    @Override
+    public void close () throws FedException {
+        if (closed) {
+            return;
+        }
+        
+        closed = true;
+        chunk  = null;
+        row    = null;
+        
+        for (int i = 0; i < fetchers.size(); i++) {
+            if (!fetchers.get(i).isDone() && statements.get(i) != null) {
+                try {
+                    statements.get(i).cancel();
+                } catch (SQLException e) {
+                    // The fetcher stops anyway at the next row
+                }
+            }
+        }
+        for (BlockingQueue<Chunk> buffer : buffers) {
+            // Unblock the fetchers waiting for free space
+            buffer.clear();
+        }
+        for (Future<Void> fetcher : fetchers) {
+            try {
+                FedExecutor.get(fetcher);
+            } catch (FedException e) {
+                // Errors of rows not read anymore are ignored
+            }
+        }
+    }
+
+
+    /**
+     * Read all the rows of a ResultSet into a buffer. Runs on a worker thread.
+     */
+    private Void fetch (ResultSet rs, BlockingQueue<Chunk> buffer) throws InterruptedException {
+        Chunk next = new Chunk();
+        
+        try {
+            while (!closed && rs.next()) {
+                Object[] row = new Object[names.length];
+                
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = isNumeric(types[i]) ? rs.getBigDecimal(i + 1) : rs.getString(i + 1);
+                }
+                next.rows.add(row);
+                
+                if (next.rows.size() == CHUNK_SIZE) {
+                    put(buffer, next);
+                    next = new Chunk();
+                }
+            }
+            next.last = true;
+        } catch (SQLException e) {
+            next.error = new FedException(e);
+        } finally {
+            try {
+                rs.close();
+            } catch (SQLException e) {
+                next.error = next.error != null ? next.error : new FedException(e);
+            }
+        }
+        put(buffer, next);
+        
+        return null;
+    }
+
+    /* Put a chunk into a buffer, waiting for free space unless the result set is closed */
+    private void put (BlockingQueue<Chunk> buffer, Chunk chunk) throws InterruptedException {
+        while (!closed && !buffer.offer(chunk, 100, TimeUnit.MILLISECONDS));
+    }
+
+    /* Value of a column of the current row */
+    private Object getObject (int columnIndex) throws FedException {
+        if (row == null) {
+            throw new FedException("No current row in the result set");
+        }
+        
+        return row[columnIndex - 1];
+    }
+
+    private static boolean isNumeric (int type) {
+        switch (type) {
+            case Types.NUMERIC: case Types.DECIMAL: case Types.INTEGER: case Types.BIGINT:
+            case Types.SMALLINT: case Types.TINYINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+
+    /**
+     * Position in the sorted rows of a database (merge of sorted rows).
+     */
+    private class Cursor {
+        final int index;
+        Chunk chunk;
+        int position;
+        
+        Cursor (int index) {
+            this.index = index;
+        }
+        
+        Object[] current () {
+            return chunk.rows.get(position);
+        }
+        
+        /* Move to the next row of the database, false if there are no more rows */
+        boolean advance () throws FedException {
+            position++;
+            
+            while (chunk == null || position >= chunk.rows.size()) {
+                if (index < 0 || chunk != null && chunk.last || closed) {
+                    return false;
+                }
+                chunk = take(index);
+                position = 0;
+            }
+            
+            return true;
+        }
+    }
+    
+    
+    /**
+     * Rows read by a fetcher. The last chunk of a database has last set, or error if the read failed.
+     */
+    private static class Chunk {
+        final List<Object[]> rows = new ArrayList<>(CHUNK_SIZE);
+        boolean last;
+        FedException error;
+    }
+}
@@ -0,0 +1,352 @@
+package fed.fdbs;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.transaction.xa.XAException;
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+/**
+ * Coordinator of the distributed transactions of a FedConnection (two-phase commit with XA).
+ * A transaction has one branch (FedXid) on every database. Every phase is executed concurrently
+ * on the databases, so a commit costs one prepare round and one commit round:
+ *
+ * 1. The branches are ended and prepared. If any database fails to prepare, all the branches are
+ * rolled back. Databases that didn't modify any row (read-only) are done after the prepare.
+ * 2. The decision to commit is written to the FedTransactionLog, then the prepared branches are
+ * committed. If a commit fails, the decision stays in the log and the branch is committed by the
+ * recovery.
+ *
+ * The recovery is executed when the first FedConnection with XA is created: prepared branches of
+ * transactions with a commit decision are committed, other prepared branches of this FDBS node are 
+ * rolled back. Branches of other FDBS nodes using the same databases (see FedXid) are not touched.
+ *
+ */
+public class FedTransaction {
+    // Recovery is executed once per FDBS
+    private static final AtomicBoolean recovered = new AtomicBoolean();
+
+    private final XAResource[] resources;
+    private FedXid[] branches;
+    private boolean suspended;
+
+
+    /**
+     * Create a FedTransaction object.
+     *
+     * @param resources
+     *          the XAResource objects of the databases (index 1 to 3)
+     */
+    public FedTransaction (XAResource[] resources) {
+        this.resources = resources;
+    }
+
+
+    /**
+     * Start a new transaction on all the databases.
+     *
+     * @throws FedException
+     */
+    public void begin () throws FedException {
+        String global_id = FedXid.newGlobalId();
+        
+        branches = new FedXid[4];
+        for (int db = 1; db <= 3; db++) {
+            branches[db] = new FedXid(global_id, db);
+        }
+        
+        FedException error = getError("Start", run((resource, xid) -> {
+            resource.start(xid, XAResource.TMNOFLAGS);
+            return XAResource.XA_OK;
+        }));
+        
+        if (error != null) {
+            rollback();
+            throw error;
+        }
+    }
+
+    /**
+     * Commit the current transaction with a two-phase commit.
+     *
+     * @throws FedException if the transaction was rolled back or couldn't be committed on every database
+     */
+    public void commit () throws FedException {
+        String global_id = branches[1].getGlobalId();
+        
+        resume();
+        
+        // Phase 1: end and prepare the branches
+        Object[] votes = run((resource, xid) -> {
+            resource.end(xid, XAResource.TMSUCCESS);
+            return resource.prepare(xid);
+        });
+        
+        FedException error = getError("Prepare", votes);
+        
+        if (error != null) {
+            rollbackPrepared(votes);
+            branches = null;
+            throw new FedException("Transaction rolled back. " + error.getMessage());
+        }
+        
+        // Read-only branches are already completed
+        for (int db = 1; db <= 3; db++) {
+            if (votes[db].equals(XAResource.XA_RDONLY)) {
+                branches[db] = null;
+            }
+        }
+        
+        if (branches[1] == null && branches[2] == null && branches[3] == null) {
+            FedLogger.trace("Transaction " + global_id + " was read-only");
+            branches = null;
+            return;
+        }
+        
+        try {
+            FedTransactionLog.logCommit(global_id);
+        } catch (FedException e) {
+            // Without decision the transaction can't be committed
+            rollbackPrepared(votes);
+            branches = null;
+            throw new FedException("Transaction rolled back. " + e.getMessage());
+        }
+        
+        // Phase 2: commit the prepared branches
+        error = getError("Commit", run((resource, xid) -> {
+            resource.commit(xid, false);
+            return XAResource.XA_OK;
+        }));
+        
+        branches = null;
+        
+        if (error != null) {
+            throw new FedException("Transaction " + global_id + " committed, completion pending on recovery. "
+                                   + error.getMessage());
+        }
+        
+        FedTransactionLog.logEnd(global_id);
+        FedLogger.trace("Transaction " + global_id + " committed");
+    }
+
+    /**
+     * Roll back the current transaction on all the databases.
+     *
+     * @throws FedException
+     */
+    public void rollback () throws FedException {
+        if (branches == null) {
+            return;
+        }
+        
+        resume();
+        
+        FedException error = getError("Rollback", run((resource, xid) -> {
+            try {
+                resource.end(xid, XAResource.TMSUCCESS);
+            } catch (XAException e) {
+                // The branch is rolled back anyway (e.g. it wasn't started or the database already ended it)
+            }
+            resource.rollback(xid);
+            return XAResource.XA_OK;
+        }));
+        
+        branches = null;
+        
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Suspend the current transaction, so that statements that can't be part of a distributed
+     * transaction (DDL) can be executed.
+     *
+     * @throws FedException
+     */
+    public void suspend () throws FedException {
+        if (branches == null || suspended) {
+            return;
+        }
+        
+        FedException error = getError("Suspend", run((resource, xid) -> {
+            resource.end(xid, XAResource.TMSUSPEND);
+            return XAResource.XA_OK;
+        }));
+        
+        suspended = true;
+        
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Resume the suspended transaction.
+     *
+     * @throws FedException
+     */
+    public void resume () throws FedException {
+        if (branches == null || !suspended) {
+            return;
+        }
+        
+        suspended = false;
+        
+        FedException error = getError("Resume", run((resource, xid) -> {
+            resource.start(xid, XAResource.TMRESUME);
+            return XAResource.XA_OK;
+        }));
+        
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * @return true if a transaction was started and not yet committed or rolled back
+     */
+    public boolean isActive () {
+        return branches != null;
+    }
+
+
+    /**
+     * Complete the transactions of this FDBS node left prepared on the databases (only the first time 
+     * it's called): commit those with a commit decision in the FedTransactionLog, roll back the others.
+     *
+     * @param resources
+     *          the XAResource objects of the databases (index 1 to 3)
+     * @throws FedException
+     */
+    public static void recover (XAResource[] resources) throws FedException {
+        if (!recovered.compareAndSet(false, true)) {
+            return;
+        }
+        
+        Set<String> pending = FedTransactionLog.getPendingCommits();
+        Set<String> unresolved = new HashSet<>();
+        
+        for (int db = 1; db <= 3; db++) {
+            try {
+                for (Xid xid : resources[db].recover(XAResource.TMSTARTRSCAN | XAResource.TMENDRSCAN)) {
+                    String global_id = FedXid.getGlobalId(xid);
+                    
+                    if (global_id == null) {
+                        // Not created by this FDBS node
+                        continue;
+                    }
+                    
+                    try {
+                        if (pending.contains(global_id)) {
+                            FedLogger.trace("Recovery: committing transaction " + global_id + " on " + FedConfig.getDbName(db));
+                            resources[db].commit(xid, false);
+                        }
+                        else {
+                            FedLogger.trace("Recovery: rolling back transaction " + global_id + " on " + FedConfig.getDbName(db));
+                            resources[db].rollback(xid);
+                        }
+                    } catch (XAException e) {
+                        FedLogger.error("Recovery of transaction " + global_id + " failed: " + getMessage(e));
+                        unresolved.add(global_id);
+                    }
+                }
+            } catch (XAException e) {
+                // The decisions are kept for the next recovery
+                FedLogger.error("Recovery on " + FedConfig.getDbName(db) + " failed: " + getMessage(e));
+                unresolved.addAll(pending);
+            }
+        }
+        
+        pending.retainAll(unresolved);
+        FedTransactionLog.compact(pending);
+    }
+
+
+    /**
+     * Execute an XA operation concurrently on every branch of the current transaction.
+     *
+     * @return the results of the branches (index 1 to 3): the value returned by the operation,
+     *          the XAException thrown by it or null if the branch is completed
+     */
+    private Object[] run (Operation operation) throws FedException {
+        List<Callable<Object>> tasks = new ArrayList<>();
+        List<Integer> dbs = new ArrayList<>();
+        Object[] results = new Object[4];
+        
+        for (int db = 1; db <= 3; db++) {
+            if (branches[db] != null) {
+                XAResource resource = resources[db];
+                FedXid xid = branches[db];
+                
+                dbs.add(db);
+                tasks.add(() -> {
+                    try {
+                        return operation.apply(resource, xid);
+                    } catch (XAException e) {
+                        return e;
+                    }
+                });
+            }
+        }
+        
+        List<Object> values = FedExecutor.invokeAll(tasks);
+        
+        for (int i = 0; i < dbs.size(); i++) {
+            results[dbs.get(i)] = values.get(i);
+        }
+        
+        return results;
+    }
+
+    /* Roll back the branches that were prepared successfully */
+    private void rollbackPrepared (Object[] votes) {
+        for (int db = 1; db <= 3; db++) {
+            if (!(votes[db] instanceof Integer) || votes[db].equals(XAResource.XA_RDONLY)) {
+                branches[db] = null;
+            }
+        }
+        
+        try {
+            FedException error = getError("Rollback", run((resource, xid) -> {
+                resource.rollback(xid);
+                return XAResource.XA_OK;
+            }));
+            
+            if (error != null) {
+                FedLogger.error(error.getMessage());
+            }
+        } catch (FedException e) {
+            FedLogger.error(e.getMessage());
+        }
+    }
+
+    /* The error of the first failed database or null */
+    private static FedException getError (String phase, Object[] results) {
+        for (int db = 1; db <= 3; db++) {
+            if (results[db] instanceof XAException) {
+                return new FedException(phase + " failed on " + FedConfig.getDbName(db) + ": "
+                                        + getMessage((XAException) results[db]));
+            }
+        }
+        
+        return null;
+    }
+
+    private static String getMessage (XAException e) {
+        return "XA error " + e.errorCode + (e.getMessage() != null ? " (" + e.getMessage().trim() + ")" : "");
+    }
+
+
+    /**
+     * XA operation on a branch.
+     */
+    private interface Operation {
+        Object apply (XAResource resource, Xid xid) throws XAException;
+    }
+}
@@ -0,0 +1,115 @@
+package fed.fdbs;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Decision log of the distributed transactions (FedTransaction). The decision to commit a
+ * transaction is written to the file (FedConfig.xalog) and forced to disk after all the databases
+ * prepared it and before any of them commits it. Once all the databases committed it, the
+ * transaction is marked as ended.
+ *
+ * A transaction with a commit decision but without end was interrupted during the commit phase,
+ * its prepared branches have to be committed by the recovery. Prepared branches of transactions
+ * without decision are rolled back (presumed abort).
+ *
+ */
+public class FedTransactionLog {
+    // Records of the log: COMMIT <global id> and END <global id>
+    private static final String COMMIT = "COMMIT";
+    private static final String END    = "END";
+
+
+    /**
+     * Write the decision to commit a transaction and force it to disk.
+     *
+     * @param global_id
+     * @throws FedException if the decision can't be written: the transaction must be rolled back
+     */
+    public static synchronized void logCommit (String global_id) throws FedException {
+        write(COMMIT + " " + global_id + "\n", true);
+    }
+
+    /**
+     * Mark a transaction as committed on all the databases.
+     *
+     * @param global_id
+     * @throws FedException
+     */
+    public static synchronized void logEnd (String global_id) throws FedException {
+        write(END + " " + global_id + "\n", false);
+    }
+
+    /**
+     * @return the global ids of the transactions with a commit decision that are not marked as ended
+     * @throws FedException
+     */
+    public static synchronized Set<String> getPendingCommits () throws FedException {
+        Set<String> pending = new LinkedHashSet<>();
+        File file = new File(FedConfig.xalog);
+        
+        if (!file.exists()) {
+            return pending;
+        }
+        
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            
+            while ((line = reader.readLine()) != null) {
+                String[] record = line.trim().split(" ");
+                
+                if (record.length == 2 && record[0].equals(COMMIT)) {
+                    pending.add(record[1]);
+                }
+                else if (record.length == 2 && record[0].equals(END)) {
+                    pending.remove(record[1]);
+                }
+            }
+        } catch (IOException e) {
+            throw new FedException("Unable to read the transaction log " + FedConfig.xalog + ": " + e.getMessage());
+        }
+        
+        return pending;
+    }
+
+    /**
+     * Rewrite the log with the commit decisions of the given transactions only (after recovery).
+     *
+     * @param pending
+     *          the global ids of the transactions still to be committed
+     * @throws FedException
+     */
+    public static synchronized void compact (Set<String> pending) throws FedException {
+        String records = "";
+        
+        for (String global_id : pending) {
+            records += COMMIT + " " + global_id + "\n";
+        }
+        
+        try (FileOutputStream out = new FileOutputStream(FedConfig.xalog, false)) {
+            out.write(records.getBytes(StandardCharsets.US_ASCII));
+            out.getFD().sync();
+        } catch (IOException e) {
+            throw new FedException("Unable to write the transaction log " + FedConfig.xalog + ": " + e.getMessage());
+        }
+    }
+
+    /* Append a record to the log, forcing it to disk if required */
+    private static void write (String record, boolean force) throws FedException {
+        try (FileOutputStream out = new FileOutputStream(FedConfig.xalog, true)) {
+            out.write(record.getBytes(StandardCharsets.US_ASCII));
+            
+            if (force) {
+                out.getFD().sync();
+            }
+        } catch (IOException e) {
+            throw new FedException("Unable to write the transaction log " + FedConfig.xalog + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package fed.fdbs;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import javax.transaction.xa.Xid;
+
+/**
+ * Identifier of the branch of a distributed transaction (FedTransaction) on one database. All the
+ * branches of a transaction have the same global transaction id and the number of their database
+ * as branch qualifier.
+ *
+ * The global transaction id starts with the name of the FDBS node that created it (node/uuid), so
+ * that the recovery of a node never completes the transactions of another FDBS using the same
+ * databases. The name must stay the same across restarts: FedConfig.xanode, or by default a hash of
+ * the host name and of the path of the decision log.
+ *
+ */
+public class FedXid implements Xid {
+    // Format identifier of the transactions coordinated by the FDBS ("FDBS")
+    public static final int FORMAT = 0x46444253;
+
+    // Maximum length of the node name (the global transaction id is limited to 64 bytes)
+    private static final int MAX_NODE_LENGTH = 16;
+
+    // Name of this FDBS node
+    private static volatile String node;
+
+    private final String global_id;
+    private final byte[] gtrid;
+    private final byte[] bqual;
+
+
+    /**
+     * Create a FedXid object.
+     *
+     * @param global_id
+     *          the global transaction id shared by the branches
+     * @param db
+     *          the database of the branch (1, 2 or 3)
+     */
+    public FedXid (String global_id, int db) {
+        this.global_id = global_id;
+        this.gtrid = global_id.getBytes(StandardCharsets.US_ASCII);
+        this.bqual = new byte[] { (byte) db };
+    }
+
+
+    /**
+     * @return a new global transaction id of this node
+     */
+    public static String newGlobalId () {
+        return getNode() + "/" + UUID.randomUUID().toString();
+    }
+
+    /**
+     * Return the global transaction id of a branch created by this FDBS node.
+     *
+     * @param xid
+     *          a branch returned by XAResource.recover
+     * @return the global transaction id or null if the branch was not created by this node
+     */
+    public static String getGlobalId (Xid xid) {
+        if (xid.getFormatId() != FORMAT) {
+            return null;
+        }
+        
+        String global_id = new String(xid.getGlobalTransactionId(), StandardCharsets.US_ASCII);
+        
+        return global_id.startsWith(getNode() + "/") ? global_id : null;
+    }
+
+    /**
+     * @return the name of this FDBS node
+     */
+    public static String getNode () {
+        if (node == null) {
+            String name = FedConfig.xanode;
+            
+            if (name == null) {
+                String host;
+                
+                try {
+                    host = InetAddress.getLocalHost().getHostName();
+                } catch (UnknownHostException e) {
+                    host = "localhost";
+                }
+                name = Integer.toHexString((host + ":" + new File(FedConfig.xalog).getAbsolutePath()).hashCode());
+            }
+            
+            node = name.length() > MAX_NODE_LENGTH ? name.substring(0, MAX_NODE_LENGTH) : name;
+        }
+        
+        return node;
+    }
+
+    /*   Getters   */
+    public String getGlobalId () {
+        return global_id;
+    }
+
+    @Override
+    public int getFormatId () {
+        return FORMAT;
+    }
+
+    @Override
+    public byte[] getGlobalTransactionId () {
+        return gtrid.clone();
+    }
+
+    @Override
+    public byte[] getBranchQualifier () {
+        return bqual.clone();
+    }
+
+    @Override
+    public boolean equals (Object other) {
+        if (!(other instanceof Xid)) {
+            return false;
+        }
+        
+        Xid xid = (Xid) other;
+        
+        return xid.getFormatId() == FORMAT && Arrays.equals(xid.getGlobalTransactionId(), gtrid)
+                                           && Arrays.equals(xid.getBranchQualifier(), bqual);
+    }
+
+    @Override
+    public int hashCode () {
+        return Arrays.hashCode(gtrid) * 31 + bqual[0];
+    }
+
+    @Override
+    public String toString () {
+        return global_id + "." + bqual[0];
+    }
+}
@@ -124,6 +124,23 @@ public class Parser implements ParserConstants {
       jj_la1[5] = jj_gen;
       ;
     }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_ORDER:
+      orderBy();
+      break;
+    default:
+      jj_la1[6] = jj_gen;
+      ;
+    }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_FETCH:
+    case R_LIMIT:
+      limitRows();
+      break;
+    default:
+      jj_la1[7] = jj_gen;
+      ;
+    }
     jj_consume_token(O_TERMINATOR);
         {if (true) return qlQuery;}
     throw new Error("Missing return statement in function");
@@ -153,7 +170,7 @@ public class Parser implements ParserConstants {
       nonJoinCondition();
       break;
     default:
-      jj_la1[6] = jj_gen;
+      jj_la1[8] = jj_gen;
       ;
     }
   }
@@ -173,7 +190,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(INTEGER);
       break;
     default:
-      jj_la1[7] = jj_gen;
+      jj_la1[9] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -189,18 +206,109 @@ public class Parser implements ParserConstants {
         jj_consume_token(R_OR);
         break;
       default:
-        jj_la1[8] = jj_gen;
+        jj_la1[10] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
       nonJoinCondition();
       break;
     default:
-      jj_la1[9] = jj_gen;
+      jj_la1[11] = jj_gen;
+      ;
+    }
+  }
+
+  final public void orderBy() throws ParseException {
+    jj_consume_token(R_ORDER);
+    jj_consume_token(R_BY);
+    orderKey();
+    label_2:
+    while (true) {
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case O_COMMA:
+        ;
+        break;
+      default:
+        jj_la1[12] = jj_gen;
+        break label_2;
+      }
+      jj_consume_token(O_COMMA);
+      orderKey();
+    }
+  }
+
+  final public void orderKey() throws ParseException {
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case Q_ATTRIBUTE:
+      jj_consume_token(Q_ATTRIBUTE);
+      break;
+    case INTEGER:
+      jj_consume_token(INTEGER);
+      break;
+    case Q_COUNT:
+      jj_consume_token(Q_COUNT);
+      break;
+    case Q_SUM:
+      jj_consume_token(Q_SUM);
+      break;
+    default:
+      jj_la1[13] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_ASC:
+    case R_DESC:
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case R_ASC:
+        jj_consume_token(R_ASC);
+        break;
+      case R_DESC:
+        jj_consume_token(R_DESC);
+        break;
+      default:
+        jj_la1[14] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
+      break;
+    default:
+      jj_la1[15] = jj_gen;
       ;
     }
   }
 
+  final public void limitRows() throws ParseException {
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_FETCH:
+      jj_consume_token(R_FETCH);
+      jj_consume_token(R_FIRST);
+      jj_consume_token(INTEGER);
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case R_ROWS:
+        jj_consume_token(R_ROWS);
+        break;
+      case R_ROW:
+        jj_consume_token(R_ROW);
+        break;
+      default:
+        jj_la1[16] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
+      jj_consume_token(R_ONLY);
+      break;
+    case R_LIMIT:
+      jj_consume_token(R_LIMIT);
+      jj_consume_token(INTEGER);
+      break;
+    default:
+      jj_la1[17] = jj_gen;
+      jj_consume_token(-1);
+      throw new ParseException();
+    }
+  }
+
   final public void withOrWithoutHaving() throws ParseException {
     jj_consume_token(R_GROUP);
     jj_consume_token(R_BY);
@@ -216,7 +324,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(INTEGER);
       break;
     default:
-      jj_la1[10] = jj_gen;
+      jj_la1[18] = jj_gen;
       ;
     }
   }
@@ -230,6 +338,14 @@ public class Parser implements ParserConstants {
     T = jj_consume_token(S_IDENTIFIER);
               qlQuery = new SQLStatement();
               qlQuery.setTableName(T.image);
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_WHERE:
+      whereWithJoin();
+      break;
+    default:
+      jj_la1[19] = jj_gen;
+      ;
+    }
     jj_consume_token(O_TERMINATOR);
         {if (true) return qlQuery;}
     throw new Error("Missing return statement in function");
@@ -249,10 +365,27 @@ public class Parser implements ParserConstants {
       whereWithJoin();
       break;
     default:
-      jj_la1[11] = jj_gen;
+      jj_la1[20] = jj_gen;
       ;
     }
     withOrWithoutHaving();
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_ORDER:
+      orderBy();
+      break;
+    default:
+      jj_la1[21] = jj_gen;
+      ;
+    }
+    switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+    case R_FETCH:
+    case R_LIMIT:
+      limitRows();
+      break;
+    default:
+      jj_la1[22] = jj_gen;
+      ;
+    }
               qlQuery = new SQLStatement();
               qlQuery.setTableName(T.image);
     jj_consume_token(O_TERMINATOR);
@@ -279,7 +412,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(Q_SUM);
       break;
     default:
-      jj_la1[12] = jj_gen;
+      jj_la1[23] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -301,7 +434,7 @@ public class Parser implements ParserConstants {
       dmlQuery = updateTuple();
       break;
     default:
-      jj_la1[13] = jj_gen;
+      jj_la1[24] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -324,7 +457,7 @@ public class Parser implements ParserConstants {
       ColumnComparison();
       break;
     default:
-      jj_la1[14] = jj_gen;
+      jj_la1[25] = jj_gen;
       ;
     }
               dmlQuery = new SQLStatement();
@@ -352,7 +485,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(R_NULL);
       break;
     default:
-      jj_la1[15] = jj_gen;
+      jj_la1[26] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -362,7 +495,7 @@ public class Parser implements ParserConstants {
       ColumnSetter();
       break;
     default:
-      jj_la1[16] = jj_gen;
+      jj_la1[27] = jj_gen;
       ;
     }
   }
@@ -401,7 +534,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(R_NULL);
       break;
     default:
-      jj_la1[17] = jj_gen;
+      jj_la1[28] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -411,7 +544,7 @@ public class Parser implements ParserConstants {
       InsertValueExpressions();
       break;
     default:
-      jj_la1[18] = jj_gen;
+      jj_la1[29] = jj_gen;
       ;
     }
   }
@@ -429,7 +562,7 @@ public class Parser implements ParserConstants {
       ColumnComparison();
       break;
     default:
-      jj_la1[19] = jj_gen;
+      jj_la1[30] = jj_gen;
       ;
     }
               dmlQuery = new SQLStatement();
@@ -454,7 +587,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(INTEGER);
       break;
     default:
-      jj_la1[20] = jj_gen;
+      jj_la1[31] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -469,14 +602,14 @@ public class Parser implements ParserConstants {
         jj_consume_token(R_OR);
         break;
       default:
-        jj_la1[21] = jj_gen;
+        jj_la1[32] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
       ColumnComparison();
       break;
     default:
-      jj_la1[22] = jj_gen;
+      jj_la1[33] = jj_gen;
       ;
     }
   }
@@ -505,7 +638,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(O_NOTEQUAL);
       break;
     default:
-      jj_la1[23] = jj_gen;
+      jj_la1[34] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -526,7 +659,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(0);
       break;
     default:
-      jj_la1[24] = jj_gen;
+      jj_la1[35] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -543,7 +676,7 @@ public class Parser implements ParserConstants {
       ddlQuery = drop();
       break;
     default:
-      jj_la1[25] = jj_gen;
+      jj_la1[36] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -567,7 +700,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(R_CONSTRAINTS);
       break;
     default:
-      jj_la1[26] = jj_gen;
+      jj_la1[37] = jj_gen;
       ;
     }
     jj_consume_token(O_TERMINATOR);
@@ -590,10 +723,22 @@ public class Parser implements ParserConstants {
     jj_consume_token(O_CLOSEPAREN);
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
     case R_HORIZONTAL:
-      processHorizontal();
+    case R_REPLICATED:
+      switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
+      case R_HORIZONTAL:
+        processHorizontal();
+        break;
+      case R_REPLICATED:
+        jj_consume_token(R_REPLICATED);
+        break;
+      default:
+        jj_la1[38] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
+      }
       break;
     default:
-      jj_la1[27] = jj_gen;
+      jj_la1[39] = jj_gen;
       ;
     }
     jj_consume_token(O_TERMINATOR);
@@ -613,7 +758,7 @@ public class Parser implements ParserConstants {
   }
 
   final public void PartioningLimits() throws ParseException {
-    label_2:
+    label_3:
     while (true) {
       jj_consume_token(INTEGER);
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
@@ -621,8 +766,8 @@ public class Parser implements ParserConstants {
         ;
         break;
       default:
-        jj_la1[28] = jj_gen;
-        break label_2;
+        jj_la1[40] = jj_gen;
+        break label_3;
       }
     }
     switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
@@ -631,13 +776,13 @@ public class Parser implements ParserConstants {
       jj_consume_token(INTEGER);
       break;
     default:
-      jj_la1[29] = jj_gen;
+      jj_la1[41] = jj_gen;
       ;
     }
   }
 
   final public void ColumnsAndConstraints() throws ParseException {
-    label_3:
+    label_4:
     while (true) {
       Columns();
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
@@ -645,19 +790,19 @@ public class Parser implements ParserConstants {
         ;
         break;
       default:
-        jj_la1[30] = jj_gen;
-        break label_3;
+        jj_la1[42] = jj_gen;
+        break label_4;
       }
     }
-    label_4:
+    label_5:
     while (true) {
       switch ((jj_ntk==-1)?jj_ntk():jj_ntk) {
       case O_COMMA:
         ;
         break;
       default:
-        jj_la1[31] = jj_gen;
-        break label_4;
+        jj_la1[43] = jj_gen;
+        break label_5;
       }
       jj_consume_token(O_COMMA);
       Constraints();
@@ -693,7 +838,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(O_CLOSEPAREN);
       break;
     default:
-      jj_la1[32] = jj_gen;
+      jj_la1[44] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -726,7 +871,7 @@ public class Parser implements ParserConstants {
       ForeignKey();
       break;
     default:
-      jj_la1[33] = jj_gen;
+      jj_la1[45] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -753,7 +898,7 @@ public class Parser implements ParserConstants {
       jj_consume_token(R_UNIQUE);
       break;
     default:
-      jj_la1[34] = jj_gen;
+      jj_la1[46] = jj_gen;
       jj_consume_token(-1);
       throw new ParseException();
     }
@@ -787,7 +932,7 @@ public class Parser implements ParserConstants {
         jj_consume_token(INTEGER);
         break;
       default:
-        jj_la1[35] = jj_gen;
+        jj_la1[47] = jj_gen;
         jj_consume_token(-1);
         throw new ParseException();
       }
@@ -818,7 +963,7 @@ public class Parser implements ParserConstants {
       SingleQuoteStrings();
       break;
     default:
-      jj_la1[36] = jj_gen;
+      jj_la1[48] = jj_gen;
       ;
     }
   }
@@ -907,26 +1052,66 @@ public class Parser implements ParserConstants {
     finally { jj_save(11, xla); }
   }
 
-  private boolean jj_3R_5() {
+  private boolean jj_3R_9() {
     if (jj_scan_token(Q_ATTRIBUTE)) return true;
+    return false;
+  }
+
+  private boolean jj_3_7() {
     if (jj_scan_token(O_COMMA)) return true;
-    if (jj_3R_12()) return true;
+    if (jj_3R_10()) return true;
     return false;
   }
 
-  private boolean jj_3_2() {
+  private boolean jj_3R_10() {
     if (jj_scan_token(S_IDENTIFIER)) return true;
+    return false;
+  }
+
+  private boolean jj_3_4() {
+    if (jj_3R_7()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_6() {
+    if (jj_scan_token(Q_ATTRIBUTE)) return true;
     if (jj_scan_token(O_COMMA)) return true;
+    if (jj_3R_13()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_7() {
+    if (jj_scan_token(O_OPENPAREN)) return true;
+    if (jj_scan_token(Q_ATTRIBUTE)) return true;
+    if (jj_3R_12()) return true;
+    if (jj_scan_token(Q_ATTRIBUTE)) return true;
+    return false;
+  }
+
+  private boolean jj_3_1() {
+    if (jj_3R_6()) return true;
+    return false;
+  }
+
+  private boolean jj_3R_8() {
+    if (jj_scan_token(O_OPENPAREN)) return true;
+    if (jj_scan_token(Q_ATTRIBUTE)) return true;
+    if (jj_3R_12()) return true;
+    return false;
+  }
+
+  private boolean jj_3_5() {
+    if (jj_3R_8()) return true;
     return false;
   }
 
   private boolean jj_3_6() {
     if (jj_scan_token(O_COMMA)) return true;
-    if (jj_3R_8()) return true;
+    if (jj_3R_9()) return true;
     return false;
   }
 
-  private boolean jj_3R_11() {
+  private boolean jj_3R_12() {
     Token xsp;
     xsp = jj_scanpos;
     if (jj_scan_token(15)) {
@@ -951,19 +1136,30 @@ public class Parser implements ParserConstants {
     return false;
   }
 
-  private boolean jj_3R_12() {
+  private boolean jj_3_3() {
+    if (jj_scan_token(S_IDENTIFIER)) return true;
+    return false;
+  }
+
+  private boolean jj_3_2() {
+    if (jj_scan_token(S_IDENTIFIER)) return true;
+    if (jj_scan_token(O_COMMA)) return true;
+    return false;
+  }
+
+  private boolean jj_3R_13() {
     Token xsp;
     xsp = jj_scanpos;
-    if (jj_scan_token(74)) {
+    if (jj_scan_token(81)) {
     jj_scanpos = xsp;
-    if (jj_scan_token(75)) return true;
+    if (jj_scan_token(82)) return true;
     }
     return false;
   }
 
   private boolean jj_3_8() {
     if (jj_scan_token(O_COMMA)) return true;
-    if (jj_3R_10()) return true;
+    if (jj_3R_11()) return true;
     return false;
   }
 
@@ -987,66 +1183,15 @@ public class Parser implements ParserConstants {
 
   private boolean jj_3_10() {
     if (jj_scan_token(S_IDENTIFIER)) return true;
-    if (jj_3R_11()) return true;
+    if (jj_3R_12()) return true;
     return false;
   }
 
-  private boolean jj_3R_10() {
+  private boolean jj_3R_11() {
     if (jj_scan_token(R_CONSTRAINT)) return true;
     return false;
   }
 
-  private boolean jj_3R_8() {
-    if (jj_scan_token(Q_ATTRIBUTE)) return true;
-    return false;
-  }
-
-  private boolean jj_3_4() {
-    if (jj_3R_6()) return true;
-    return false;
-  }
-
-  private boolean jj_3_1() {
-    if (jj_3R_5()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_6() {
-    if (jj_scan_token(O_OPENPAREN)) return true;
-    if (jj_scan_token(Q_ATTRIBUTE)) return true;
-    if (jj_3R_11()) return true;
-    if (jj_scan_token(Q_ATTRIBUTE)) return true;
-    return false;
-  }
-
-  private boolean jj_3_7() {
-    if (jj_scan_token(O_COMMA)) return true;
-    if (jj_3R_9()) return true;
-    return false;
-  }
-
-  private boolean jj_3R_7() {
-    if (jj_scan_token(O_OPENPAREN)) return true;
-    if (jj_scan_token(Q_ATTRIBUTE)) return true;
-    if (jj_3R_11()) return true;
-    return false;
-  }
-
-  private boolean jj_3_5() {
-    if (jj_3R_7()) return true;
-    return false;
-  }
-
-  private boolean jj_3_3() {
-    if (jj_scan_token(S_IDENTIFIER)) return true;
-    return false;
-  }
-
-  private boolean jj_3R_9() {
-    if (jj_scan_token(S_IDENTIFIER)) return true;
-    return false;
-  }
-
   /** Generated Token Manager. */
   public ParserTokenManager token_source;
   SimpleCharStream jj_input_stream;
@@ -1058,7 +1203,7 @@ public class Parser implements ParserConstants {
   private Token jj_scanpos, jj_lastpos;
   private int jj_la;
   private int jj_gen;
-  final private int[] jj_la1 = new int[37];
+  final private int[] jj_la1 = new int[49];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static private int[] jj_la1_2;
@@ -1068,13 +1213,13 @@ public class Parser implements ParserConstants {
       jj_la1_init_2();
    }
    private static void jj_la1_init_0() {
-      jj_la1_0 = new int[] {0x0,0x0,0x0,0x100,0x100,0x0,0x0,0x1800000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x1800000,0x800,0x1800000,0x800,0x0,0x1800000,0x0,0x0,0x6f8000,0x1,0x0,0x0,0x0,0x1000000,0x800,0x0,0x800,0x0,0x0,0x0,0x1800000,0x800,};
+      jj_la1_0 = new int[] {0x0,0x0,0x0,0x100,0x100,0x0,0x0,0x0,0x0,0x1800000,0x0,0x0,0x800,0x1000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x1800000,0x800,0x1800000,0x800,0x0,0x1800000,0x0,0x0,0x6f8000,0x1,0x0,0x0,0x0,0x0,0x1000000,0x800,0x0,0x800,0x0,0x0,0x0,0x1800000,0x800,};
    }
    private static void jj_la1_init_1() {
-      jj_la1_1 = new int[] {0x1e140000,0x1e140000,0x0,0x0,0x0,0x400000,0x8,0x0,0x10008,0x10008,0x400,0x400000,0x0,0x18100000,0x400000,0x8000,0x0,0x8000,0x0,0x400000,0x0,0x10008,0x10008,0x0,0x6,0x6000000,0x0,0x0,0x0,0x0,0x0,0x0,0x80000000,0x60080000,0x20080000,0x0,0x0,};
+      jj_la1_1 = new int[] {0x1e140000,0x1e140000,0x0,0x0,0x0,0x400000,0x20000,0x0,0x8,0x0,0x10008,0x10008,0x0,0x0,0x90,0x90,0x0,0x0,0x400,0x400000,0x400000,0x20000,0x0,0x0,0x18100000,0x400000,0x8000,0x0,0x8000,0x0,0x400000,0x0,0x10008,0x10008,0x0,0x6,0x6000000,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x80000000,0x60080000,0x20080000,0x0,0x0,};
    }
    private static void jj_la1_init_2() {
-      jj_la1_2 = new int[] {0x0,0x0,0x400,0x200,0x200,0x0,0x0,0x8000,0x0,0x0,0x0,0x0,0xc00,0x0,0x0,0x8000,0x0,0x8000,0x0,0x0,0x8000,0x0,0x0,0x0,0x0,0x0,0x100,0x2,0x0,0x0,0x1000,0x0,0x1,0x20,0x0,0x9000,0x0,};
+      jj_la1_2 = new int[] {0x0,0x0,0x20000,0x10000,0x10000,0x0,0x0,0x108,0x0,0x400000,0x0,0x0,0x0,0x70000,0x0,0x0,0x60,0x108,0x0,0x0,0x0,0x0,0x108,0x60000,0x0,0x0,0x400000,0x0,0x400000,0x0,0x0,0x400000,0x0,0x0,0x0,0x0,0x0,0x8000,0x6,0x6,0x0,0x0,0x80000,0x0,0x1,0x1000,0x0,0x480000,0x0,};
    }
   final private JJCalls[] jj_2_rtns = new JJCalls[12];
   private boolean jj_rescan = false;
@@ -1091,7 +1236,7 @@ public class Parser implements ParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 37; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 49; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1106,7 +1251,7 @@ public class Parser implements ParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 37; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 49; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1117,7 +1262,7 @@ public class Parser implements ParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 37; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 49; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1128,7 +1273,7 @@ public class Parser implements ParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 37; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 49; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1138,7 +1283,7 @@ public class Parser implements ParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 37; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 49; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1148,7 +1293,7 @@ public class Parser implements ParserConstants {
     token = new Token();
     jj_ntk = -1;
     jj_gen = 0;
-    for (int i = 0; i < 37; i++) jj_la1[i] = -1;
+    for (int i = 0; i < 49; i++) jj_la1[i] = -1;
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
@@ -1260,12 +1405,12 @@ public class Parser implements ParserConstants {
   /** Generate ParseException. */
   public ParseException generateParseException() {
     jj_expentries.clear();
-    boolean[] la1tokens = new boolean[81];
+    boolean[] la1tokens = new boolean[88];
     if (jj_kind >= 0) {
       la1tokens[jj_kind] = true;
       jj_kind = -1;
     }
-    for (int i = 0; i < 37; i++) {
+    for (int i = 0; i < 49; i++) {
       if (jj_la1[i] == jj_gen) {
         for (int j = 0; j < 32; j++) {
           if ((jj_la1_0[i] & (1<<j)) != 0) {
@@ -1280,7 +1425,7 @@ public class Parser implements ParserConstants {
         }
       }
     }
-    for (int i = 0; i < 81; i++) {
+    for (int i = 0; i < 88; i++) {
       if (la1tokens[i]) {
         jj_expentry = new int[1];
         jj_expentry[0] = i;
@@ -131,35 +131,49 @@ public interface ParserConstants {
   /** RegularExpression Id. */
   int R_HORIZONTAL = 65;
   /** RegularExpression Id. */
-  int R_SET = 66;
+  int R_REPLICATED = 66;
   /** RegularExpression Id. */
-  int R_SUM = 67;
+  int R_FETCH = 67;
   /** RegularExpression Id. */
-  int R_COUNT = 68;
+  int R_FIRST = 68;
   /** RegularExpression Id. */
-  int R_CHECK = 69;
+  int R_ROWS = 69;
   /** RegularExpression Id. */
-  int R_BETWEEN = 70;
+  int R_ROW = 70;
   /** RegularExpression Id. */
-  int R_REFERENCES = 71;
+  int R_ONLY = 71;
   /** RegularExpression Id. */
-  int R_CASCADE = 72;
+  int R_LIMIT = 72;
   /** RegularExpression Id. */
-  int Q_ATTRIBUTE = 73;
+  int R_SET = 73;
   /** RegularExpression Id. */
-  int Q_COUNT = 74;
+  int R_SUM = 74;
   /** RegularExpression Id. */
-  int Q_SUM = 75;
+  int R_COUNT = 75;
   /** RegularExpression Id. */
-  int S_IDENTIFIER = 76;
+  int R_CHECK = 76;
   /** RegularExpression Id. */
-  int LETTER = 77;
+  int R_BETWEEN = 77;
   /** RegularExpression Id. */
-  int SPECIAL_CHARS = 78;
+  int R_REFERENCES = 78;
   /** RegularExpression Id. */
-  int QUOTED_STRING = 79;
+  int R_CASCADE = 79;
   /** RegularExpression Id. */
-  int EMPTY_STRING = 80;
+  int Q_ATTRIBUTE = 80;
+  /** RegularExpression Id. */
+  int Q_COUNT = 81;
+  /** RegularExpression Id. */
+  int Q_SUM = 82;
+  /** RegularExpression Id. */
+  int S_IDENTIFIER = 83;
+  /** RegularExpression Id. */
+  int LETTER = 84;
+  /** RegularExpression Id. */
+  int SPECIAL_CHARS = 85;
+  /** RegularExpression Id. */
+  int QUOTED_STRING = 86;
+  /** RegularExpression Id. */
+  int EMPTY_STRING = 87;
 
   /** Lexical state. */
   int DEFAULT = 0;
@@ -232,6 +246,13 @@ public interface ParserConstants {
     "\"INTEGER\"",
     "\"VARCHAR\"",
     "\"HORIZONTAL\"",
+    "\"REPLICATED\"",
+    "\"FETCH\"",
+    "\"FIRST\"",
+    "\"ROWS\"",
+    "\"ROW\"",
+    "\"ONLY\"",
+    "\"LIMIT\"",
     "\"SET\"",
     "\"SUM\"",
     "\"COUNT\"",
@@ -73,13 +73,13 @@ private int jjMoveStringLiteralDfa0_0()
       case 65:
          return jjMoveStringLiteralDfa1_0(0x1800000000L, 0x0L);
       case 66:
-         return jjMoveStringLiteralDfa1_0(0x2000000000L, 0x40L);
+         return jjMoveStringLiteralDfa1_0(0x2000000000L, 0x2000L);
       case 67:
-         return jjMoveStringLiteralDfa1_0(0x380004204000000L, 0x130L);
+         return jjMoveStringLiteralDfa1_0(0x380004204000000L, 0x9800L);
       case 68:
          return jjMoveStringLiteralDfa1_0(0x1400018088000000L, 0x0L);
       case 70:
-         return jjMoveStringLiteralDfa1_0(0x4000000100000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x4000000100000000L, 0x18L);
       case 71:
          return jjMoveStringLiteralDfa1_0(0x20000000000L, 0x0L);
       case 72:
@@ -87,17 +87,17 @@ private int jjMoveStringLiteralDfa0_0()
       case 73:
          return jjMoveStringLiteralDfa1_0(0x8800180060000000L, 0x0L);
       case 76:
-         return jjMoveStringLiteralDfa1_0(0x200000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x200000000000L, 0x100L);
       case 78:
          return jjMoveStringLiteralDfa1_0(0xc00000000000L, 0x0L);
       case 79:
-         return jjMoveStringLiteralDfa1_0(0x3000000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x3000000000000L, 0x80L);
       case 80:
          return jjMoveStringLiteralDfa1_0(0x2000000000000000L, 0x0L);
       case 82:
-         return jjMoveStringLiteralDfa1_0(0x400000000L, 0x80L);
+         return jjMoveStringLiteralDfa1_0(0x400000000L, 0x4064L);
       case 83:
-         return jjMoveStringLiteralDfa1_0(0x4000000000000L, 0xcL);
+         return jjMoveStringLiteralDfa1_0(0x4000000000000L, 0x600L);
       case 84:
          return jjMoveStringLiteralDfa1_0(0x10000000L, 0x0L);
       case 85:
@@ -109,13 +109,13 @@ private int jjMoveStringLiteralDfa0_0()
       case 97:
          return jjMoveStringLiteralDfa1_0(0x1800000000L, 0x0L);
       case 98:
-         return jjMoveStringLiteralDfa1_0(0x2000000000L, 0x40L);
+         return jjMoveStringLiteralDfa1_0(0x2000000000L, 0x2000L);
       case 99:
-         return jjMoveStringLiteralDfa1_0(0x380004204000000L, 0x130L);
+         return jjMoveStringLiteralDfa1_0(0x380004204000000L, 0x9800L);
       case 100:
          return jjMoveStringLiteralDfa1_0(0x1400018088000000L, 0x0L);
       case 102:
-         return jjMoveStringLiteralDfa1_0(0x4000000100000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x4000000100000000L, 0x18L);
       case 103:
          return jjMoveStringLiteralDfa1_0(0x20000000000L, 0x0L);
       case 104:
@@ -123,17 +123,17 @@ private int jjMoveStringLiteralDfa0_0()
       case 105:
          return jjMoveStringLiteralDfa1_0(0x8800180060000000L, 0x0L);
       case 108:
-         return jjMoveStringLiteralDfa1_0(0x200000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x200000000000L, 0x100L);
       case 110:
          return jjMoveStringLiteralDfa1_0(0xc00000000000L, 0x0L);
       case 111:
-         return jjMoveStringLiteralDfa1_0(0x3000000000000L, 0x0L);
+         return jjMoveStringLiteralDfa1_0(0x3000000000000L, 0x80L);
       case 112:
          return jjMoveStringLiteralDfa1_0(0x2000000000000000L, 0x0L);
       case 114:
-         return jjMoveStringLiteralDfa1_0(0x400000000L, 0x80L);
+         return jjMoveStringLiteralDfa1_0(0x400000000L, 0x4064L);
       case 115:
-         return jjMoveStringLiteralDfa1_0(0x4000000000000L, 0xcL);
+         return jjMoveStringLiteralDfa1_0(0x4000000000000L, 0x600L);
       case 116:
          return jjMoveStringLiteralDfa1_0(0x10000000L, 0x0L);
       case 117:
@@ -179,22 +179,22 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1)
          }
          break;
       case 65:
-         return jjMoveStringLiteralDfa2_0(active0, 0x20040010000000L, active1, 0x101L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x20040010000000L, active1, 0x8001L);
       case 69:
-         return jjMoveStringLiteralDfa2_0(active0, 0x1004008080000000L, active1, 0xc4L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x1004008080000000L, active1, 0x620cL);
       case 72:
-         return jjMoveStringLiteralDfa2_0(active0, 0x40000000000000L, active1, 0x20L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x40000000000000L, active1, 0x1000L);
       case 73:
-         return jjMoveStringLiteralDfa2_0(active0, 0x210000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x210000000000L, active1, 0x110L);
       case 78:
          if ((active0 & 0x80000000000L) != 0L)
          {
             jjmatchedKind = 43;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x8808000860000000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x8808000860000000L, active1, 0x80L);
       case 79:
-         return jjMoveStringLiteralDfa2_0(active0, 0x4180404600000000L, active1, 0x12L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x4180404600000000L, active1, 0x862L);
       case 80:
          return jjMoveStringLiteralDfa2_0(active0, 0x10000000000000L, active1, 0L);
       case 82:
@@ -212,7 +212,7 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1)
          }
          return jjMoveStringLiteralDfa2_0(active0, 0x1000000000L, active1, 0L);
       case 85:
-         return jjMoveStringLiteralDfa2_0(active0, 0x800000000000L, active1, 0x8L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x800000000000L, active1, 0x400L);
       case 89:
          if ((active0 & 0x2000000000L) != 0L)
          {
@@ -221,22 +221,22 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1)
          }
          break;
       case 97:
-         return jjMoveStringLiteralDfa2_0(active0, 0x20040010000000L, active1, 0x101L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x20040010000000L, active1, 0x8001L);
       case 101:
-         return jjMoveStringLiteralDfa2_0(active0, 0x1004008080000000L, active1, 0xc4L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x1004008080000000L, active1, 0x620cL);
       case 104:
-         return jjMoveStringLiteralDfa2_0(active0, 0x40000000000000L, active1, 0x20L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x40000000000000L, active1, 0x1000L);
       case 105:
-         return jjMoveStringLiteralDfa2_0(active0, 0x210000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x210000000000L, active1, 0x110L);
       case 110:
          if ((active0 & 0x80000000000L) != 0L)
          {
             jjmatchedKind = 43;
             jjmatchedPos = 1;
          }
-         return jjMoveStringLiteralDfa2_0(active0, 0x8808000860000000L, active1, 0L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x8808000860000000L, active1, 0x80L);
       case 111:
-         return jjMoveStringLiteralDfa2_0(active0, 0x4180404600000000L, active1, 0x12L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x4180404600000000L, active1, 0x862L);
       case 112:
          return jjMoveStringLiteralDfa2_0(active0, 0x10000000000000L, active1, 0L);
       case 114:
@@ -254,7 +254,7 @@ private int jjMoveStringLiteralDfa1_0(long active0, long active1)
          }
          return jjMoveStringLiteralDfa2_0(active0, 0x1000000000L, active1, 0L);
       case 117:
-         return jjMoveStringLiteralDfa2_0(active0, 0x800000000000L, active1, 0x8L);
+         return jjMoveStringLiteralDfa2_0(active0, 0x800000000000L, active1, 0x400L);
       case 121:
          if ((active0 & 0x2000000000L) != 0L)
          {
@@ -294,46 +294,55 @@ private int jjMoveStringLiteralDfa2_0(long old0, long active0, long old1, long a
          }
          return jjMoveStringLiteralDfa3_0(active0, 0x12000000000000L, active1, 0L);
       case 69:
-         return jjMoveStringLiteralDfa3_0(active0, 0x240000004000000L, active1, 0x20L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x240000004000000L, active1, 0x1000L);
       case 70:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x80L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x4000L);
       case 73:
          return jjMoveStringLiteralDfa3_0(active0, 0x2008000000000000L, active1, 0L);
       case 75:
          return jjMoveStringLiteralDfa3_0(active0, 0x200000000000L, active1, 0L);
       case 76:
-         return jjMoveStringLiteralDfa3_0(active0, 0x1024800480000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x1024800480000000L, active1, 0x80L);
       case 77:
-         if ((active1 & 0x8L) != 0L)
+         if ((active1 & 0x400L) != 0L)
          {
-            jjmatchedKind = 67;
+            jjmatchedKind = 74;
             jjmatchedPos = 2;
          }
-         return jjMoveStringLiteralDfa3_0(active0, 0x200000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x200000000L, active1, 0x100L);
       case 78:
          return jjMoveStringLiteralDfa3_0(active0, 0x180004000000000L, active1, 0L);
       case 79:
          return jjMoveStringLiteralDfa3_0(active0, 0x400020108000000L, active1, 0L);
+      case 80:
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x4L);
       case 82:
-         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000000000L, active1, 0x3L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000000000L, active1, 0x13L);
       case 83:
-         return jjMoveStringLiteralDfa3_0(active0, 0x800018020000000L, active1, 0x100L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x800018020000000L, active1, 0x8000L);
       case 84:
          if ((active0 & 0x400000000000L) != 0L)
          {
             jjmatchedKind = 46;
             jjmatchedPos = 2;
          }
-         else if ((active1 & 0x4L) != 0L)
+         else if ((active1 & 0x200L) != 0L)
          {
-            jjmatchedKind = 66;
+            jjmatchedKind = 73;
             jjmatchedPos = 2;
          }
-         return jjMoveStringLiteralDfa3_0(active0, 0x8000000040000000L, active1, 0x40L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x8000000040000000L, active1, 0x2008L);
       case 85:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x10L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x800L);
       case 86:
          return jjMoveStringLiteralDfa3_0(active0, 0x40000000000L, active1, 0L);
+      case 87:
+         if ((active1 & 0x40L) != 0L)
+         {
+            jjmatchedKind = 70;
+            jjmatchedPos = 2;
+         }
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x20L);
       case 98:
          return jjMoveStringLiteralDfa3_0(active0, 0x10000000L, active1, 0L);
       case 99:
@@ -351,46 +360,55 @@ private int jjMoveStringLiteralDfa2_0(long old0, long active0, long old1, long a
          }
          return jjMoveStringLiteralDfa3_0(active0, 0x12000000000000L, active1, 0L);
       case 101:
-         return jjMoveStringLiteralDfa3_0(active0, 0x240000004000000L, active1, 0x20L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x240000004000000L, active1, 0x1000L);
       case 102:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x80L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x4000L);
       case 105:
          return jjMoveStringLiteralDfa3_0(active0, 0x2008000000000000L, active1, 0L);
       case 107:
          return jjMoveStringLiteralDfa3_0(active0, 0x200000000000L, active1, 0L);
       case 108:
-         return jjMoveStringLiteralDfa3_0(active0, 0x1024800480000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x1024800480000000L, active1, 0x80L);
       case 109:
-         if ((active1 & 0x8L) != 0L)
+         if ((active1 & 0x400L) != 0L)
          {
-            jjmatchedKind = 67;
+            jjmatchedKind = 74;
             jjmatchedPos = 2;
          }
-         return jjMoveStringLiteralDfa3_0(active0, 0x200000000L, active1, 0L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x200000000L, active1, 0x100L);
       case 110:
          return jjMoveStringLiteralDfa3_0(active0, 0x180004000000000L, active1, 0L);
       case 111:
          return jjMoveStringLiteralDfa3_0(active0, 0x400020108000000L, active1, 0L);
+      case 112:
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x4L);
       case 114:
-         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000000000L, active1, 0x3L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x4000000000000000L, active1, 0x13L);
       case 115:
-         return jjMoveStringLiteralDfa3_0(active0, 0x800018020000000L, active1, 0x100L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x800018020000000L, active1, 0x8000L);
       case 116:
          if ((active0 & 0x400000000000L) != 0L)
          {
             jjmatchedKind = 46;
             jjmatchedPos = 2;
          }
-         else if ((active1 & 0x4L) != 0L)
+         else if ((active1 & 0x200L) != 0L)
          {
-            jjmatchedKind = 66;
+            jjmatchedKind = 73;
             jjmatchedPos = 2;
          }
-         return jjMoveStringLiteralDfa3_0(active0, 0x8000000040000000L, active1, 0x40L);
+         return jjMoveStringLiteralDfa3_0(active0, 0x8000000040000000L, active1, 0x2008L);
       case 117:
-         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x10L);
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x800L);
       case 118:
          return jjMoveStringLiteralDfa3_0(active0, 0x40000000000L, active1, 0L);
+      case 119:
+         if ((active1 & 0x40L) != 0L)
+         {
+            jjmatchedKind = 70;
+            jjmatchedPos = 2;
+         }
+         return jjMoveStringLiteralDfa3_0(active0, 0L, active1, 0x20L);
       default :
          break;
    }
@@ -414,23 +432,23 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
             jjmatchedKind = 39;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x121L);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x9009L);
       case 69:
          if ((active0 & 0x200000000000L) != 0L)
          {
             jjmatchedKind = 45;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0xd8060000a0000000L, active1, 0x80L);
+         return jjMoveStringLiteralDfa4_0(active0, 0xd8060000a0000000L, active1, 0x4000L);
       case 73:
-         return jjMoveStringLiteralDfa4_0(active0, 0x40000000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x40000000000L, active1, 0x102L);
       case 76:
          if ((active0 & 0x800000000000L) != 0L)
          {
             jjmatchedKind = 47;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0x410000000L, active1, 0L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x410000000L, active1, 0x4L);
       case 77:
          if ((active0 & 0x100000000L) != 0L)
          {
@@ -439,7 +457,7 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
          }
          return jjMoveStringLiteralDfa4_0(active0, 0x2000000200000000L, active1, 0L);
       case 78:
-         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000L, active1, 0x10L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000L, active1, 0x800L);
       case 79:
          if ((active0 & 0x40000000L) != 0L)
          {
@@ -459,13 +477,25 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
       case 82:
          return jjMoveStringLiteralDfa4_0(active0, 0x40000000000000L, active1, 0L);
       case 83:
-         return jjMoveStringLiteralDfa4_0(active0, 0x180000000000000L, active1, 0L);
+         if ((active1 & 0x20L) != 0L)
+         {
+            jjmatchedKind = 69;
+            jjmatchedPos = 3;
+         }
+         return jjMoveStringLiteralDfa4_0(active0, 0x180000000000000L, active1, 0x10L);
       case 84:
          return jjMoveStringLiteralDfa4_0(active0, 0x10000000000L, active1, 0L);
       case 85:
          return jjMoveStringLiteralDfa4_0(active0, 0x20020000000000L, active1, 0L);
       case 87:
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x40L);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x2000L);
+      case 89:
+         if ((active1 & 0x80L) != 0L)
+         {
+            jjmatchedKind = 71;
+            jjmatchedPos = 3;
+         }
+         break;
       case 97:
          return jjMoveStringLiteralDfa4_0(active0, 0x210000004000000L, active1, 0L);
       case 99:
@@ -474,23 +504,23 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
             jjmatchedKind = 39;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x121L);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x9009L);
       case 101:
          if ((active0 & 0x200000000000L) != 0L)
          {
             jjmatchedKind = 45;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0xd8060000a0000000L, active1, 0x80L);
+         return jjMoveStringLiteralDfa4_0(active0, 0xd8060000a0000000L, active1, 0x4000L);
       case 105:
-         return jjMoveStringLiteralDfa4_0(active0, 0x40000000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x40000000000L, active1, 0x102L);
       case 108:
          if ((active0 & 0x800000000000L) != 0L)
          {
             jjmatchedKind = 47;
             jjmatchedPos = 3;
          }
-         return jjMoveStringLiteralDfa4_0(active0, 0x410000000L, active1, 0L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x410000000L, active1, 0x4L);
       case 109:
          if ((active0 & 0x100000000L) != 0L)
          {
@@ -499,7 +529,7 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
          }
          return jjMoveStringLiteralDfa4_0(active0, 0x2000000200000000L, active1, 0L);
       case 110:
-         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000L, active1, 0x10L);
+         return jjMoveStringLiteralDfa4_0(active0, 0x4000000000L, active1, 0x800L);
       case 111:
          if ((active0 & 0x40000000L) != 0L)
          {
@@ -519,13 +549,25 @@ private int jjMoveStringLiteralDfa3_0(long old0, long active0, long old1, long a
       case 114:
          return jjMoveStringLiteralDfa4_0(active0, 0x40000000000000L, active1, 0L);
       case 115:
-         return jjMoveStringLiteralDfa4_0(active0, 0x180000000000000L, active1, 0L);
+         if ((active1 & 0x20L) != 0L)
+         {
+            jjmatchedKind = 69;
+            jjmatchedPos = 3;
+         }
+         return jjMoveStringLiteralDfa4_0(active0, 0x180000000000000L, active1, 0x10L);
       case 116:
          return jjMoveStringLiteralDfa4_0(active0, 0x10000000000L, active1, 0L);
       case 117:
          return jjMoveStringLiteralDfa4_0(active0, 0x20020000000000L, active1, 0L);
       case 119:
-         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x40L);
+         return jjMoveStringLiteralDfa4_0(active0, 0L, active1, 0x2000L);
+      case 121:
+         if ((active1 & 0x80L) != 0L)
+         {
+            jjmatchedKind = 71;
+            jjmatchedPos = 3;
+         }
+         break;
       default :
          break;
    }
@@ -544,7 +586,7 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
       case 32:
          return jjMoveStringLiteralDfa5_0(active0, 0x400000000000000L, active1, 0L);
       case 65:
-         return jjMoveStringLiteralDfa5_0(active0, 0x2000000000000000L, active1, 0x100L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x2000000000000000L, active1, 0x8000L);
       case 66:
          return jjMoveStringLiteralDfa5_0(active0, 0x400000000L, active1, 0L);
       case 67:
@@ -560,17 +602,22 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
             jjmatchedKind = 54;
             jjmatchedPos = 4;
          }
-         return jjMoveStringLiteralDfa5_0(active0, 0x20004000000000L, active1, 0x40L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x20004000000000L, active1, 0x2000L);
       case 71:
          return jjMoveStringLiteralDfa5_0(active0, 0x8000000000000000L, active1, 0L);
       case 72:
+         if ((active1 & 0x8L) != 0L)
+         {
+            jjmatchedKind = 67;
+            jjmatchedPos = 4;
+         }
          return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x1L);
       case 73:
-         return jjMoveStringLiteralDfa5_0(active0, 0x4000010200000000L, active1, 0L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x4000010200000000L, active1, 0x4L);
       case 75:
-         if ((active1 & 0x20L) != 0L)
+         if ((active1 & 0x1000L) != 0L)
          {
-            jjmatchedKind = 69;
+            jjmatchedKind = 76;
             jjmatchedPos = 4;
          }
          break;
@@ -589,20 +636,30 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
             jjmatchedKind = 49;
             jjmatchedPos = 4;
          }
-         return jjMoveStringLiteralDfa5_0(active0, 0x800000020000000L, active1, 0x80L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x800000020000000L, active1, 0x4000L);
       case 84:
          if ((active1 & 0x10L) != 0L)
          {
             jjmatchedKind = 68;
             jjmatchedPos = 4;
          }
+         else if ((active1 & 0x100L) != 0L)
+         {
+            jjmatchedKind = 72;
+            jjmatchedPos = 4;
+         }
+         else if ((active1 & 0x800L) != 0L)
+         {
+            jjmatchedKind = 75;
+            jjmatchedPos = 4;
+         }
          return jjMoveStringLiteralDfa5_0(active0, 0x1390000084000000L, active1, 0L);
       case 85:
          return jjMoveStringLiteralDfa5_0(active0, 0x8000000000000L, active1, 0L);
       case 90:
          return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x2L);
       case 97:
-         return jjMoveStringLiteralDfa5_0(active0, 0x2000000000000000L, active1, 0x100L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x2000000000000000L, active1, 0x8000L);
       case 98:
          return jjMoveStringLiteralDfa5_0(active0, 0x400000000L, active1, 0L);
       case 99:
@@ -618,17 +675,22 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
             jjmatchedKind = 54;
             jjmatchedPos = 4;
          }
-         return jjMoveStringLiteralDfa5_0(active0, 0x20004000000000L, active1, 0x40L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x20004000000000L, active1, 0x2000L);
       case 103:
          return jjMoveStringLiteralDfa5_0(active0, 0x8000000000000000L, active1, 0L);
       case 104:
+         if ((active1 & 0x8L) != 0L)
+         {
+            jjmatchedKind = 67;
+            jjmatchedPos = 4;
+         }
          return jjMoveStringLiteralDfa5_0(active0, 0L, active1, 0x1L);
       case 105:
-         return jjMoveStringLiteralDfa5_0(active0, 0x4000010200000000L, active1, 0L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x4000010200000000L, active1, 0x4L);
       case 107:
-         if ((active1 & 0x20L) != 0L)
+         if ((active1 & 0x1000L) != 0L)
          {
-            jjmatchedKind = 69;
+            jjmatchedKind = 76;
             jjmatchedPos = 4;
          }
          break;
@@ -647,13 +709,23 @@ private int jjMoveStringLiteralDfa4_0(long old0, long active0, long old1, long a
             jjmatchedKind = 49;
             jjmatchedPos = 4;
          }
-         return jjMoveStringLiteralDfa5_0(active0, 0x800000020000000L, active1, 0x80L);
+         return jjMoveStringLiteralDfa5_0(active0, 0x800000020000000L, active1, 0x4000L);
       case 116:
          if ((active1 & 0x10L) != 0L)
          {
             jjmatchedKind = 68;
             jjmatchedPos = 4;
          }
+         else if ((active1 & 0x100L) != 0L)
+         {
+            jjmatchedKind = 72;
+            jjmatchedPos = 4;
+         }
+         else if ((active1 & 0x800L) != 0L)
+         {
+            jjmatchedKind = 75;
+            jjmatchedPos = 4;
+         }
          return jjMoveStringLiteralDfa5_0(active0, 0x1390000084000000L, active1, 0L);
       case 117:
          return jjMoveStringLiteralDfa5_0(active0, 0x8000000000000L, active1, 0L);
@@ -677,9 +749,9 @@ private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1, long a
       case 65:
          return jjMoveStringLiteralDfa6_0(active0, 0x400000000L, active1, 0x1L);
       case 67:
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000L, active1, 0x4L);
       case 68:
-         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x100L);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x8000L);
       case 69:
          if ((active0 & 0x4000000L) != 0L)
          {
@@ -701,7 +773,7 @@ private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1, long a
             jjmatchedKind = 52;
             jjmatchedPos = 5;
          }
-         return jjMoveStringLiteralDfa6_0(active0, 0x9200000000000000L, active1, 0xc0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x9200000000000000L, active1, 0x6000L);
       case 71:
          if ((active0 & 0x40000000000L) != 0L)
          {
@@ -742,9 +814,9 @@ private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1, long a
       case 97:
          return jjMoveStringLiteralDfa6_0(active0, 0x400000000L, active1, 0x1L);
       case 99:
-         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x4000000000L, active1, 0x4L);
       case 100:
-         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x100L);
+         return jjMoveStringLiteralDfa6_0(active0, 0L, active1, 0x8000L);
       case 101:
          if ((active0 & 0x4000000L) != 0L)
          {
@@ -766,7 +838,7 @@ private int jjMoveStringLiteralDfa5_0(long old0, long active0, long old1, long a
             jjmatchedKind = 52;
             jjmatchedPos = 5;
          }
-         return jjMoveStringLiteralDfa6_0(active0, 0x9200000000000000L, active1, 0xc0L);
+         return jjMoveStringLiteralDfa6_0(active0, 0x9200000000000000L, active1, 0x6000L);
       case 103:
          if ((active0 & 0x40000000000L) != 0L)
          {
@@ -822,23 +894,23 @@ private int jjMoveStringLiteralDfa6_0(long old0, long active0, long old1, long a
       case 32:
          return jjMoveStringLiteralDfa7_0(active0, 0x1a00000000000000L, active1, 0L);
       case 65:
-         return jjMoveStringLiteralDfa7_0(active0, 0x580000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x580000000000000L, active1, 0x4L);
       case 67:
          return jjMoveStringLiteralDfa7_0(active0, 0x10400000000L, active1, 0L);
       case 69:
-         if ((active1 & 0x100L) != 0L)
+         if ((active1 & 0x8000L) != 0L)
          {
-            jjmatchedKind = 72;
+            jjmatchedKind = 79;
             jjmatchedPos = 6;
          }
          break;
       case 78:
-         if ((active1 & 0x40L) != 0L)
+         if ((active1 & 0x2000L) != 0L)
          {
-            jjmatchedKind = 70;
+            jjmatchedKind = 77;
             jjmatchedPos = 6;
          }
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000000000L, active1, 0x82L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000000000L, active1, 0x4002L);
       case 82:
          if ((active0 & 0x8000000000000000L) != 0L)
          {
@@ -861,23 +933,23 @@ private int jjMoveStringLiteralDfa6_0(long old0, long active0, long old1, long a
       case 89:
          return jjMoveStringLiteralDfa7_0(active0, 0x2000000000000000L, active1, 0L);
       case 97:
-         return jjMoveStringLiteralDfa7_0(active0, 0x580000000000000L, active1, 0L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x580000000000000L, active1, 0x4L);
       case 99:
          return jjMoveStringLiteralDfa7_0(active0, 0x10400000000L, active1, 0L);
       case 101:
-         if ((active1 & 0x100L) != 0L)
+         if ((active1 & 0x8000L) != 0L)
          {
-            jjmatchedKind = 72;
+            jjmatchedKind = 79;
             jjmatchedPos = 6;
          }
          break;
       case 110:
-         if ((active1 & 0x40L) != 0L)
+         if ((active1 & 0x2000L) != 0L)
          {
-            jjmatchedKind = 70;
+            jjmatchedKind = 77;
             jjmatchedPos = 6;
          }
-         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000000000L, active1, 0x82L);
+         return jjMoveStringLiteralDfa7_0(active0, 0x4000000000000000L, active1, 0x4002L);
       case 114:
          if ((active0 & 0x8000000000000000L) != 0L)
          {
@@ -919,7 +991,7 @@ private int jjMoveStringLiteralDfa7_0(long old0, long active0, long old1, long a
       case 66:
          return jjMoveStringLiteralDfa8_0(active0, 0x400000000000000L, active1, 0L);
       case 67:
-         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x80L);
+         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x4000L);
       case 70:
          return jjMoveStringLiteralDfa8_0(active0, 0x1000000000000000L, active1, 0L);
       case 73:
@@ -937,11 +1009,11 @@ private int jjMoveStringLiteralDfa7_0(long old0, long active0, long old1, long a
             jjmatchedKind = 40;
             jjmatchedPos = 7;
          }
-         return jjMoveStringLiteralDfa8_0(active0, 0x200000000000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x200000000000000L, active1, 0x6L);
       case 98:
          return jjMoveStringLiteralDfa8_0(active0, 0x400000000000000L, active1, 0L);
       case 99:
-         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x80L);
+         return jjMoveStringLiteralDfa8_0(active0, 0L, active1, 0x4000L);
       case 102:
          return jjMoveStringLiteralDfa8_0(active0, 0x1000000000000000L, active1, 0L);
       case 105:
@@ -959,7 +1031,7 @@ private int jjMoveStringLiteralDfa7_0(long old0, long active0, long old1, long a
             jjmatchedKind = 40;
             jjmatchedPos = 7;
          }
-         return jjMoveStringLiteralDfa8_0(active0, 0x200000000000000L, active1, 0x2L);
+         return jjMoveStringLiteralDfa8_0(active0, 0x200000000000000L, active1, 0x6L);
       default :
          break;
    }
@@ -978,7 +1050,7 @@ private int jjMoveStringLiteralDfa8_0(long old0, long active0, long old1, long a
       case 65:
          return jjMoveStringLiteralDfa9_0(active0, 0x200000000000000L, active1, 0x2L);
       case 69:
-         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x80L);
+         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x4004L);
       case 75:
          return jjMoveStringLiteralDfa9_0(active0, 0x6000000000000000L, active1, 0L);
       case 76:
@@ -990,7 +1062,7 @@ private int jjMoveStringLiteralDfa8_0(long old0, long active0, long old1, long a
       case 97:
          return jjMoveStringLiteralDfa9_0(active0, 0x200000000000000L, active1, 0x2L);
       case 101:
-         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x80L);
+         return jjMoveStringLiteralDfa9_0(active0, 0L, active1, 0x4004L);
       case 107:
          return jjMoveStringLiteralDfa9_0(active0, 0x6000000000000000L, active1, 0L);
       case 108:
@@ -1016,6 +1088,13 @@ private int jjMoveStringLiteralDfa9_0(long old0, long active0, long old1, long a
    {
       case 66:
          return jjMoveStringLiteralDfa10_0(active0, 0x200000000000000L, active1, 0L);
+      case 68:
+         if ((active1 & 0x4L) != 0L)
+         {
+            jjmatchedKind = 66;
+            jjmatchedPos = 9;
+         }
+         break;
       case 69:
          if ((active0 & 0x400000000000000L) != 0L)
          {
@@ -1033,9 +1112,9 @@ private int jjMoveStringLiteralDfa9_0(long old0, long active0, long old1, long a
       case 79:
          return jjMoveStringLiteralDfa10_0(active0, 0x1000000000000000L, active1, 0L);
       case 83:
-         if ((active1 & 0x80L) != 0L)
+         if ((active1 & 0x4000L) != 0L)
          {
-            jjmatchedKind = 71;
+            jjmatchedKind = 78;
             jjmatchedPos = 9;
          }
          break;
@@ -1048,6 +1127,13 @@ private int jjMoveStringLiteralDfa9_0(long old0, long active0, long old1, long a
          return jjMoveStringLiteralDfa10_0(active0, 0x880000000000000L, active1, 0L);
       case 98:
          return jjMoveStringLiteralDfa10_0(active0, 0x200000000000000L, active1, 0L);
+      case 100:
+         if ((active1 & 0x4L) != 0L)
+         {
+            jjmatchedKind = 66;
+            jjmatchedPos = 9;
+         }
+         break;
       case 101:
          if ((active0 & 0x400000000000000L) != 0L)
          {
@@ -1065,9 +1151,9 @@ private int jjMoveStringLiteralDfa9_0(long old0, long active0, long old1, long a
       case 111:
          return jjMoveStringLiteralDfa10_0(active0, 0x1000000000000000L, active1, 0L);
       case 115:
-         if ((active1 & 0x80L) != 0L)
+         if ((active1 & 0x4000L) != 0L)
          {
-            jjmatchedKind = 71;
+            jjmatchedKind = 78;
             jjmatchedPos = 9;
          }
          break;
@@ -1315,8 +1401,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                      jjstateSet[jjnewStateCnt++] = 19;
                   break;
                case 19:
-                  if (curChar == 41 && kind > 74)
-                     kind = 74;
+                  if (curChar == 41 && kind > 81)
+                     kind = 81;
                   break;
                case 25:
                   if (curChar == 40)
@@ -1335,16 +1421,16 @@ private int jjMoveNfa_0(int startState, int curPos)
                      jjAddStates(11, 12);
                   break;
                case 31:
-                  if (curChar == 41 && kind > 75)
-                     kind = 75;
+                  if (curChar == 41 && kind > 82)
+                     kind = 82;
                   break;
                case 34:
                   if (curChar == 39)
                      jjCheckNAddTwoStates(35, 36);
                   break;
                case 35:
-                  if (curChar == 39 && kind > 79)
-                     kind = 79;
+                  if (curChar == 39 && kind > 86)
+                     kind = 86;
                   break;
                case 36:
                   if ((0xffffff7fffffffffL & l) != 0L)
@@ -1398,15 +1484,15 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 49:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 73)
-                     kind = 73;
+                  if (kind > 80)
+                     kind = 80;
                   jjstateSet[jjnewStateCnt++] = 49;
                   break;
                case 51:
                   if ((0x3ff000000000000L & l) == 0L)
                      break;
-                  if (kind > 76)
-                     kind = 76;
+                  if (kind > 83)
+                     kind = 83;
                   jjstateSet[jjnewStateCnt++] = 51;
                   break;
                default : break;
@@ -1423,8 +1509,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 5:
                   if ((0x7fffffe07fffffeL & l) != 0L)
                   {
-                     if (kind > 76)
-                        kind = 76;
+                     if (kind > 83)
+                        kind = 83;
                      jjCheckNAddStates(15, 19);
                   }
                   if ((0x8000000080000L & l) != 0L)
@@ -1496,8 +1582,8 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 44:
                   if ((0x7fffffe07fffffeL & l) == 0L)
                      break;
-                  if (kind > 76)
-                     kind = 76;
+                  if (kind > 83)
+                     kind = 83;
                   jjCheckNAddStates(15, 19);
                   break;
                case 45:
@@ -1511,29 +1597,29 @@ private int jjMoveNfa_0(int startState, int curPos)
                case 48:
                   if ((0x7fffffe07fffffeL & l) == 0L)
                      break;
-                  if (kind > 73)
-                     kind = 73;
+                  if (kind > 80)
+                     kind = 80;
                   jjCheckNAddTwoStates(48, 49);
                   break;
                case 49:
                   if ((0x7fffffe87fffffeL & l) == 0L)
                      break;
-                  if (kind > 73)
-                     kind = 73;
+                  if (kind > 80)
+                     kind = 80;
                   jjCheckNAdd(49);
                   break;
                case 50:
                   if ((0x7fffffe07fffffeL & l) == 0L)
                      break;
-                  if (kind > 76)
-                     kind = 76;
+                  if (kind > 83)
+                     kind = 83;
                   jjCheckNAddTwoStates(50, 51);
                   break;
                case 51:
                   if ((0x7fffffe87fffffeL & l) == 0L)
                      break;
-                  if (kind > 76)
-                     kind = 76;
+                  if (kind > 83)
+                     kind = 83;
                   jjCheckNAdd(51);
                   break;
                default : break;
@@ -1614,14 +1700,14 @@ public static final String[] jjstrLiteralImages = {
 null, null, null, null, null, null, null, null, null, null, null, null, null, null, 
 null, null, null, null, null, null, null, null, null, null, null, null, null, null, 
 null, null, null, null, null, null, null, null, null, null, null, null, null, null, 
-null, null, null, };
+null, null, null, null, null, null, null, null, null, null, };
 
 /** Lexer state names. */
 public static final String[] lexStateNames = {
    "DEFAULT",
 };
 static final long[] jjtoToken = {
-   0xfffffffffdffff01L, 0x9fffL, 
+   0xfffffffffdffff01L, 0x4fffffL, 
 };
 static final long[] jjtoSkip = {
    0xfeL, 0x0L, 
@@ -0,0 +1,54 @@
+package test;
+
+
+/**
+ * Checks of the unit tests. Every test is a main program that prints its failed checks and 
+ * exits with status 1 if any check failed.
+ *
+ */
+public class FedAssert {
+    
+    private static int checks;
+    private static int failures;
+    
+    
+    /**
+     * Check a condition.
+     * 
+     * @param condition
+     * @param description
+     *          what is checked, printed if the check fails
+     */
+    public static void check (boolean condition, String description) {
+        checks++;
+        
+        if (!condition) {
+            failures++;
+            System.out.println("FAILED: " + description);
+        }
+    }
+    
+    /**
+     * Check that two values are equal.
+     * 
+     * @param expected
+     * @param actual
+     * @param description
+     *          what is checked, printed if the check fails
+     */
+    public static void equal (Object expected, Object actual, String description) {
+        check(expected == null ? actual == null : expected.equals(actual), 
+              description + ": expected <" + expected + "> but was <" + actual + ">");
+    }
+    
+    /**
+     * Print the result of the checks and terminate the test.
+     * 
+     * @param test
+     *          the name of the test
+     */
+    public static void done (String test) {
+        System.out.println(test + ": " + (checks - failures) + " of " + checks + " checks passed");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
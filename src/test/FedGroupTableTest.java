@@ -0,0 +1,76 @@
+package test;
+
+import fed.fdbs.FedAggregate;
+import fed.fdbs.FedGroupTable;
+import fed.fdbs.FedLongGroupTable;
+import fed.fdbs.FedObjectGroupTable;
+
+
+/**
+ * Test of the group tables used to merge the partial results of aggregate queries
+ *
+ */
+public class FedGroupTableTest {
+    
+    public static void main (String[] args) {
+        FedAggregate[] functions = { FedAggregate.COUNT, FedAggregate.MIN, FedAggregate.MAX };
+        
+        // Long keys: more groups than expected, every key twice (two databases)
+        FedLongGroupTable longs = new FedLongGroupTable(functions, 4);
+        
+        for (int db = 1; db <= 2; db++) {
+            for (long key = 0; key < 1000; key++) {
+                int group = longs.group(key * 7919);
+                
+                longs.accumulate(group, 0, db);
+                longs.accumulate(group, 1, key + db);
+                longs.accumulate(group, 2, key + db);
+            }
+        }
+        
+        FedAssert.equal(1000, longs.size(), "long groups");
+        check(longs, 7919L * 10, 3, 11, 12);
+        
+        // NULL key and accumulators without value
+        int null_group = longs.nullGroup();
+        
+        FedAssert.equal(null_group, longs.nullGroup(), "same NULL group");
+        FedAssert.check(longs.isNullGroup(null_group), "NULL group");
+        FedAssert.equal(null, longs.getKey(null_group), "key of the NULL group");
+        FedAssert.check(longs.isNull(null_group, 0), "accumulator without value");
+        
+        // Object keys
+        FedObjectGroupTable objects = new FedObjectGroupTable(functions, 0);
+        
+        for (String key : new String[] { "Hamburg", "Berlin", "Hamburg", "Bremen", "Berlin", "Hamburg" }) {
+            int group = objects.group(key);
+            
+            objects.accumulate(group, 0, 1);
+            objects.accumulate(group, 1, key.length());
+            objects.accumulate(group, 2, -key.length());
+        }
+        
+        FedAssert.equal(3, objects.size(), "object groups");
+        check(objects, "Hamburg", 3, 7, -7);
+        check(objects, "Berlin", 2, 6, -6);
+        FedAssert.equal(objects.nullGroup(), objects.group(null), "NULL object key");
+        FedAssert.equal(4, objects.size(), "object groups with NULL");
+        
+        FedAssert.done("FedGroupTableTest");
+    }
+    
+    
+    /* Check the accumulators of the group with a key */
+    private static void check (FedGroupTable table, Object key, long count, long min, long max) {
+        for (int group = 0; group < table.size(); group++) {
+            if (key.equals(table.getKey(group))) {
+                FedAssert.equal(count, table.getValue(group, 0), "COUNT of " + key);
+                FedAssert.equal(min, table.getValue(group, 1), "MIN of " + key);
+                FedAssert.equal(max, table.getValue(group, 2), "MAX of " + key);
+                return;
+            }
+        }
+        
+        FedAssert.check(false, "group " + key);
+    }
+}
@@ -0,0 +1,53 @@
+package test;
+
+import fed.fdbs.FedLimit;
+
+
+/**
+ * Test of the row limits sent to the databases
+ *
+ */
+public class FedLimitTest {
+    
+    public static void main (String[] args) {
+        String flights = "SELECT FLUGLINIE.FLC, FLUGLINIE.NAME FROM FLUGLINIE";
+        
+        // Row limit clauses
+        FedAssert.equal(10L, FedLimit.fromStatement(flights + " FETCH FIRST 10 ROWS ONLY"), "FETCH FIRST");
+        FedAssert.equal(1L, FedLimit.fromStatement(flights + " fetch first 1 row only;"), "FETCH FIRST 1 ROW");
+        FedAssert.equal(5L, FedLimit.fromStatement(flights + " LIMIT 5"), "LIMIT");
+        FedAssert.equal(FedLimit.NONE, FedLimit.fromStatement(flights), "no limit");
+        FedAssert.equal(flights, FedLimit.strip(flights + " LIMIT 5"), "strip LIMIT");
+        FedAssert.equal(flights, FedLimit.strip(flights), "strip without limit");
+        
+        // ROWNUM condition in the WHERE clause
+        FedAssert.equal(flights, FedLimit.getQuery(flights, FedLimit.NONE, false), "no limit");
+        FedAssert.equal(flights + " WHERE ROWNUM <= 3", FedLimit.getQuery(flights, 3, false), "without WHERE");
+        FedAssert.equal(flights + " WHERE ROWNUM <= 3 AND (FLUGLINIE.FLC > 'LH')", 
+                        FedLimit.getQuery(flights + " WHERE FLUGLINIE.FLC > 'LH'", 3, false), "with WHERE");
+        
+        // Sorted, grouped and DISTINCT queries count their result rows
+        String sorted = flights + " ORDER BY FLUGLINIE.NAME";
+        FedAssert.equal("SELECT * FROM (" + sorted + ") WHERE ROWNUM <= 2", FedLimit.getQuery(sorted, 2, true), "sorted");
+        
+        String grouped = "SELECT FLUGLINIE.ALLIANZ, COUNT(*) FROM FLUGLINIE GROUP BY FLUGLINIE.ALLIANZ";
+        FedAssert.equal("SELECT * FROM (" + grouped + ") WHERE ROWNUM <= 2", FedLimit.getQuery(grouped, 2, false), "grouped");
+        
+        String distinct = "SELECT DISTINCT FLUGLINIE.ALLIANZ FROM FLUGLINIE";
+        FedAssert.equal("SELECT * FROM (" + distinct + ") WHERE ROWNUM <= 2", FedLimit.getQuery(distinct, 2, false), "DISTINCT");
+        
+        // Joins are not wrapped (columns with the same name)
+        String join = "SELECT BUCHUNG.PNR, PASSAGIER.PNR FROM BUCHUNG, PASSAGIER WHERE BUCHUNG.PNR = PASSAGIER.PNR "
+                    + "ORDER BY BUCHUNG.PNR";
+        FedAssert.equal(join, FedLimit.getQuery(join, 4, true), "sorted join");
+        
+        String plain = "SELECT BUCHUNG.PNR, PASSAGIER.PNR FROM BUCHUNG, PASSAGIER WHERE BUCHUNG.PNR = PASSAGIER.PNR";
+        FedAssert.equal("SELECT BUCHUNG.PNR, PASSAGIER.PNR FROM BUCHUNG, PASSAGIER WHERE ROWNUM <= 4 AND "
+                        + "(BUCHUNG.PNR = PASSAGIER.PNR)", FedLimit.getQuery(plain, 4, false), "join");
+        
+        String in = "SELECT BUCHUNG.PNR FROM BUCHUNG WHERE BUCHUNG.PNR IN (1, 2) ORDER BY BUCHUNG.PNR";
+        FedAssert.equal("SELECT * FROM (" + in + ") WHERE ROWNUM <= 1", FedLimit.getQuery(in, 1, true), "comma in WHERE");
+        
+        FedAssert.done("FedLimitTest");
+    }
+}
@@ -0,0 +1,103 @@
+package test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import fed.fdbs.FedException;
+import fed.fdbs.FedOrder;
+
+
+/**
+ * Test of the ORDER BY clauses merged by the FDBS
+ *
+ */
+public class FedOrderTest {
+    
+    public static void main (String[] args) throws FedException {
+        String sql = "SELECT B.X, B.Y FROM B WHERE (B.X > 3) ORDER BY B.Y DESC, B.Z";
+        FedOrder order = FedOrder.fromStatement(sql);
+        
+        FedAssert.check(FedOrder.fromStatement("SELECT B.X FROM B") == null, "no ORDER BY");
+        FedAssert.equal("SELECT B.X, B.Y FROM B WHERE (B.X > 3)", FedOrder.strip(sql), "strip");
+        
+        // Sort columns not selected are added to the select list
+        FedAssert.equal("SELECT B.X, B.Y, B.Z FROM B WHERE (B.X > 3) ORDER BY B.Y DESC, B.Z", order.addColumns(sql), "added columns");
+        FedAssert.equal(1, order.getHiddenColumns(), "hidden columns");
+        
+        Comparator<Object[]> comparator = order.getComparator(new String[] { "X", "Y", "Z" });
+        List<Object[]> rows = new ArrayList<>();
+        
+        rows.add(new Object[] { 1, "b", number(2) });
+        rows.add(new Object[] { 2, null, number(1) });
+        rows.add(new Object[] { 3, "b", number(1) });
+        rows.add(new Object[] { 4, "a", null });
+        rows.add(new Object[] { 5, "a", number(10) });
+        rows.sort(comparator);
+        
+        // NULL first in descending order, last in ascending order; numbers compared numerically
+        FedAssert.equal("[2, 3, 1, 5, 4]", firstColumn(rows), "DESC, ASC with NULL values");
+        
+        // Strings in binary order, like the databases with NLS_SORT = BINARY
+        FedOrder names = FedOrder.fromStatement("SELECT P.NAME FROM P ORDER BY P.NAME");
+        rows.clear();
+        
+        for (String name : new String[] { "b", "Z", "\u00C4", "a" }) {
+            rows.add(new Object[] { name });
+        }
+        rows.sort(names.getComparator(new String[] { "NAME" }));
+        
+        FedAssert.equal("[Z, a, b, \u00C4]", firstColumn(rows), "binary order");
+        
+        // Qualified sort keys are bound to the column of their table
+        String join = "SELECT A.X, B.X FROM A, B WHERE (A.ID = B.AID) ORDER BY B.X DESC";
+        FedOrder qualified = FedOrder.fromStatement(join);
+        
+        FedAssert.equal(join, qualified.addColumns(join), "selected qualified column");
+        rows.clear();
+        rows.add(new Object[] { number(1), number(5) });
+        rows.add(new Object[] { number(2), number(7) });
+        rows.sort(qualified.getComparator(new String[] { "X", "X" }));
+        
+        FedAssert.equal("[2, 1]", firstColumn(rows), "ORDER BY B.X");
+        
+        String other = "SELECT A.X FROM A, B WHERE (A.ID = B.AID) ORDER BY B.X";
+        FedAssert.equal("SELECT A.X, B.X FROM A, B WHERE (A.ID = B.AID) ORDER BY B.X", 
+                        FedOrder.fromStatement(other).addColumns(other), "B.X is not A.X");
+        
+        // Positions in the select list
+        FedOrder position = FedOrder.fromStatement("SELECT A.X, A.Y FROM A ORDER BY 2 DESC");
+        rows.clear();
+        rows.add(new Object[] { 1, number(5) });
+        rows.add(new Object[] { 2, number(7) });
+        rows.sort(position.getComparator(new String[] { "X", "Y" }));
+        
+        FedAssert.equal("[2, 1]", firstColumn(rows), "ORDER BY position");
+        
+        try {
+            FedOrder.fromStatement("SELECT A.X FROM A ORDER BY A.Q").getComparator(new String[] { "X" });
+            FedAssert.check(false, "invalid ORDER BY column");
+        } catch (FedException e) {
+            FedAssert.check(e.getMessage().contains("A.Q"), "invalid ORDER BY column");
+        }
+        
+        FedAssert.done("FedOrderTest");
+    }
+    
+    
+    private static BigDecimal number (int value) {
+        return BigDecimal.valueOf(value);
+    }
+    
+    private static String firstColumn (List<Object[]> rows) {
+        List<Object> values = new ArrayList<>();
+        
+        for (Object[] row : rows) {
+            values.add(row[0]);
+        }
+        
+        return Arrays.toString(values.toArray());
+    }
+}
@@ -0,0 +1,59 @@
+package test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import fed.fdbs.FedException;
+import fed.fdbs.FedPartition;
+
+
+/**
+ * Test of the routing of the rows of horizontally partitioned tables
+ *
+ */
+public class FedPartitionTest {
+    
+    public static void main (String[] args) throws FedException {
+        FedPartition three = new FedPartition("BUCHUNG", "PNR", 1, 100, 200);
+        FedPartition two   = new FedPartition("PASSAGIER", "PNR", 1, 100, null);
+        
+        // Routing of literal values
+        FedAssert.equal(1, three.getDatabase("99"), "below left");
+        FedAssert.equal(2, three.getDatabase("100"), "left");
+        FedAssert.equal(2, three.getDatabase(" '199.5' "), "quoted value");
+        FedAssert.equal(3, three.getDatabase("200"), "right");
+        FedAssert.equal(1, three.getDatabase("NULL"), "NULL");
+        FedAssert.equal(2, two.getDatabase("100000"), "without right boundary");
+        
+        try {
+            three.getDatabase("'abc'");
+            FedAssert.check(false, "invalid value");
+        } catch (FedException e) {
+            FedAssert.check(e.getMessage().contains("BUCHUNG.PNR"), "invalid value");
+        }
+        
+        // Databases that can hold rows of a comparison
+        FedAssert.equal("[false, true, true, true]", Arrays.toString(three.getDatabases()), "all databases");
+        FedAssert.equal("[false, true, true, false]", Arrays.toString(two.getDatabases()), "two databases");
+        FedAssert.equal("[false, false, true, false]", dbs(three, "=", 150), "=");
+        FedAssert.equal("[false, true, true, true]", dbs(three, "<>", 150), "<>");
+        FedAssert.equal("[false, true, false, false]", dbs(three, "<", 100), "< left");
+        FedAssert.equal("[false, true, true, false]", dbs(three, "<=", 100), "<= left");
+        FedAssert.equal("[false, false, false, true]", dbs(three, ">=", 200), ">= right");
+        FedAssert.equal("[false, false, true, true]", dbs(three, ">", 150), "> between");
+        FedAssert.equal("[false, false, true, false]", dbs(two, ">", 150), "> without right boundary");
+        
+        // Rows stored on the wrong database, e.g. after an UPDATE of the partitioning column
+        FedAssert.equal("PNR >= 100", three.getMisplacedCondition(1), "misplaced on db1");
+        FedAssert.equal("(PNR < 100 OR PNR >= 200 OR PNR IS NULL)", three.getMisplacedCondition(2), "misplaced on db2");
+        FedAssert.equal("(PNR < 200 OR PNR IS NULL)", three.getMisplacedCondition(3), "misplaced on db3");
+        FedAssert.equal("(PNR < 100 OR PNR IS NULL)", two.getMisplacedCondition(2), "misplaced on db2 of two");
+        
+        FedAssert.done("FedPartitionTest");
+    }
+    
+    
+    private static String dbs (FedPartition partition, String op, int value) {
+        return Arrays.toString(partition.getDatabases(op, BigDecimal.valueOf(value)));
+    }
+}
@@ -0,0 +1,79 @@
+package test;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import fed.fdbs.FedPartition;
+import fed.fdbs.FedPredicate;
+
+
+/**
+ * Test of the parsing and evaluation of WHERE conditions and of the databases pruned with them
+ *
+ */
+public class FedPredicateTest {
+    
+    private static final FedPartition partition = new FedPartition("BUCHUNG", "PNR", 1, 100, 200);
+    
+    
+    public static void main (String[] args) {
+        // Parsing
+        FedAssert.equal("(PNR > 2) AND (PNR <= 4)",
+                        FedPredicate.parse("(BUCHUNG.PNR > 2) AND (BUCHUNG.PNR <= 4)").toString().replace("BUCHUNG.", ""),
+                        "AND");
+        FedAssert.equal("(A = 1) OR ((B = 2) AND (C = 3))", FedPredicate.parse("A = 1 OR B = 2 AND C = 3").toString(),
+                        "AND binds stronger than OR");
+        FedAssert.equal("NAME = 'O''Neil'", FedPredicate.parse("NAME='O''Neil'").toString(), "escaped quote");
+        FedAssert.equal(null, FedPredicate.parse("PNR BETWEEN 1 AND 2"), "unsupported operator");
+        FedAssert.equal(null, FedPredicate.parse("(PNR = 1"), "unbalanced parenthesis");
+        FedAssert.equal(null, FedPredicate.fromStatement("SELECT * FROM BUCHUNG"), "no WHERE clause");
+        FedAssert.equal("PNR = 5", FedPredicate.fromStatement("SELECT * FROM BUCHUNG WHERE PNR = 5 ORDER BY PNR;").toString(),
+                        "WHERE clause of a statement");
+        FedAssert.equal("[A, T.B]", FedPredicate.parse("a = 1 AND t.b = 'x'").getColumns().toString(), "columns");
+        FedAssert.equal(2, FedPredicate.parse("A = 1 AND (B = 2 OR C = 3)").getConjuncts().size(), "conjuncts");
+        
+        // Pruning
+        FedAssert.equal("[false, false, true, false]", dbs("SELECT * FROM BUCHUNG WHERE PNR = 150"), "=");
+        FedAssert.equal("[false, false, true, false]", dbs("SELECT * FROM BUCHUNG WHERE BUCHUNG.PNR = '150'"), "qualified column");
+        FedAssert.equal("[false, false, false, true]", dbs("SELECT * FROM BUCHUNG WHERE 200 <= PNR"), "swapped operands");
+        FedAssert.equal("[false, true, true, false]", dbs("SELECT * FROM BUCHUNG WHERE PNR >= 50 AND PNR < 150"), "range");
+        FedAssert.equal("[false, true, false, true]", dbs("SELECT * FROM BUCHUNG WHERE PNR = 1 OR PNR = 300"), "OR");
+        FedAssert.equal("[false, false, false, false]", dbs("SELECT * FROM BUCHUNG WHERE PNR < 50 AND PNR > 250"), "empty range");
+        FedAssert.equal("[false, true, true, true]", dbs("SELECT * FROM BUCHUNG WHERE FLUG = 150"), "other column");
+        FedAssert.equal("[false, true, true, true]", dbs("SELECT * FROM BUCHUNG WHERE PNR <> 150"), "<>");
+        FedAssert.equal("[false, false, true, false]", dbs("UPDATE BUCHUNG SET X = 1 WHERE PNR = 150 AND X = 2"),
+                        "UPDATE with a further condition");
+        
+        // Evaluation
+        Map<String, Integer> columns = new HashMap<>();
+        columns.put("PNR", 0);
+        columns.put("BUCHUNG.PNR", 0);
+        columns.put("NAME", 1);
+        columns.put("DATUM", 2);
+        Object[] row = { new BigDecimal("150"), "Meier", Timestamp.valueOf("2020-03-01 00:00:00") };
+        
+        FedAssert.check(FedPredicate.parse("BUCHUNG.PNR >= 100 AND NAME = 'Meier'").evaluate(columns, row), "AND");
+        FedAssert.check(FedPredicate.parse("PNR = '150.0'").evaluate(columns, row), "number compared with a string");
+        FedAssert.check(!FedPredicate.parse("PNR < 100 OR NAME <> 'Meier'").evaluate(columns, row), "OR");
+        FedAssert.check(FedPredicate.parse("PNR = NAME OR PNR > 1").evaluate(columns, row), "comparison of columns");
+        FedAssert.check(!FedPredicate.parse("NAME = NULL").evaluate(columns, row), "comparison with NULL");
+        FedAssert.check(!FedPredicate.parse("NAME = 'x'").evaluate(columns, new Object[] { null, null, null }), "NULL value");
+        
+        // Comparison of values
+        FedAssert.check(FedPredicate.compare(new BigDecimal("9"), new BigDecimal("10")) < 0, "numbers");
+        FedAssert.check(FedPredicate.compare("9", "10") > 0, "strings");
+        FedAssert.check(FedPredicate.compare(new BigDecimal("9"), "10") < 0, "number and string");
+        FedAssert.check(FedPredicate.compare(Timestamp.valueOf("2020-03-01 00:00:00"),
+                                             Timestamp.valueOf("2020-02-28 00:00:00")) > 0, "dates");
+        
+        FedAssert.done("FedPredicateTest");
+    }
+    
+    
+    private static String dbs (String sql) {
+        return Arrays.toString(FedPredicate.fromStatement(sql).getDatabases(partition));
+    }
+}
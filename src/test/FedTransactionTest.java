@@ -0,0 +1,248 @@
+package test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.transaction.xa.XAException;
+import javax.transaction.xa.XAResource;
+import javax.transaction.xa.Xid;
+
+import fed.fdbs.FedConfig;
+import fed.fdbs.FedException;
+import fed.fdbs.FedLogger;
+import fed.fdbs.FedTransaction;
+import fed.fdbs.FedTransactionLog;
+import fed.fdbs.FedXid;
+
+    
+/**
+ * Test of the two-phase commit and of the recovery of the distributed transactions. The databases
+ * are simulated by XAResource objects that keep the state of their branches in memory.
+ *
+ */
+public class FedTransactionTest {
+    
+    private static final String ACTIVE     = "ACTIVE";
+    private static final String PREPARED   = "PREPARED";
+    private static final String COMMITTED  = "COMMITTED";
+    private static final String ROLLEDBACK = "ROLLEDBACK";
+    private static final String READONLY   = "READONLY";
+    
+    
+    public static void main (String[] args) throws FedException, IOException {
+        File log = File.createTempFile("fdbs-xa", ".log");
+        log.deleteOnExit();
+        
+        FedConfig.xalog  = log.getPath();
+        FedConfig.xanode = "test";
+        FedConfig.setDb1("jdbc:test:DB1");
+        FedConfig.setDb2("jdbc:test:DB2");
+        FedConfig.setDb3("jdbc:test:DB3");
+        FedLogger.setEcho("OFF");
+        
+        Resource[] resources = { null, new Resource(), new Resource(), new Resource() };
+        FedTransaction transaction = new FedTransaction(resources);
+        
+        // Commit on all the databases
+        transaction.begin();
+        FedAssert.check(transaction.isActive(), "active after begin");
+        FedAssert.equal("[ACTIVE, ACTIVE, ACTIVE]", states(resources), "branches started");
+        transaction.commit();
+        FedAssert.check(!transaction.isActive(), "not active after commit");
+        FedAssert.equal("[COMMITTED, COMMITTED, COMMITTED]", states(resources), "commit");
+        FedAssert.equal("[]", FedTransactionLog.getPendingCommits().toString(), "decision ended after commit");
+        
+        // A read-only database is done after the prepare
+        resources[3].read_only = true;
+        resources[3].commits = 0;
+        transaction.begin();
+        transaction.commit();
+        FedAssert.equal("[COMMITTED, COMMITTED, READONLY]", states(resources), "read-only branch");
+        FedAssert.equal(0, resources[3].commits, "read-only branch not committed");
+        resources[3].read_only = false;
+        
+        // Prepare failure: the prepared branches are rolled back
+        resources[2].fail_prepare = true;
+        transaction.begin();
+        
+        try {
+            transaction.commit();
+            FedAssert.check(false, "prepare failure");
+        } catch (FedException e) {
+            FedAssert.check(e.getMessage().startsWith("Transaction rolled back"), "prepare failure: " + e.getMessage());
+            FedAssert.check(e.getMessage().contains("Prepare failed on DB2"), "failed database: " + e.getMessage());
+        }
+        FedAssert.equal("[ROLLEDBACK, ROLLEDBACK, ROLLEDBACK]", states(resources), "rollback after prepare failure");
+        FedAssert.equal("[]", FedTransactionLog.getPendingCommits().toString(), "no decision after prepare failure");
+        resources[2].fail_prepare = false;
+        
+        // Explicit rollback
+        transaction.begin();
+        transaction.rollback();
+        FedAssert.equal("[ROLLEDBACK, ROLLEDBACK, ROLLEDBACK]", states(resources), "rollback");
+        
+        // Commit failure after the decision: the branch stays prepared and the decision stays in the log
+        resources[3].fail_commit = true;
+        transaction.begin();
+        String decided = resources[1].getLastGlobalId();
+        
+        try {
+            transaction.commit();
+            FedAssert.check(false, "commit failure");
+        } catch (FedException e) {
+            FedAssert.check(e.getMessage().contains("completion pending on recovery"), "commit failure: " + e.getMessage());
+        }
+        FedAssert.equal("[COMMITTED, COMMITTED, PREPARED]", states(resources), "branch in doubt");
+        FedAssert.equal("[" + decided + "]", FedTransactionLog.getPendingCommits().toString(), "decision kept");
+        resources[3].fail_commit = false;
+        
+        // Branches in doubt without decision, and a branch of another FDBS node on the same database
+        String undecided = FedXid.newGlobalId();
+        FedXid other = new FedXid("othernode/" + UUID.randomUUID(), 1);
+        
+        resources[1].setInDoubt(new FedXid(undecided, 1));
+        resources[2].setInDoubt(new FedXid(undecided, 2));
+        resources[1].setInDoubt(other);
+        
+        // Recovery
+        FedTransaction.recover(resources);
+        FedAssert.equal(COMMITTED, resources[3].branches.get(new FedXid(decided, 3)), "recovery commits the decided branch");
+        FedAssert.equal(ROLLEDBACK, resources[1].branches.get(new FedXid(undecided, 1)), "recovery rolls back without decision");
+        FedAssert.equal(ROLLEDBACK, resources[2].branches.get(new FedXid(undecided, 2)), "recovery rolls back without decision");
+        FedAssert.equal(PREPARED, resources[1].branches.get(other), "branch of another node left alone");
+        FedAssert.equal("[]", FedTransactionLog.getPendingCommits().toString(), "log compacted after recovery");
+        
+        // The recovery is executed only once
+        resources[1].setInDoubt(new FedXid(undecided, 1));
+        FedTransaction.recover(resources);
+        FedAssert.equal(PREPARED, resources[1].branches.get(new FedXid(undecided, 1)), "recovery executed once");
+        
+        FedAssert.done("FedTransactionTest");
+    }
+    
+    
+    /* States of the last branch of every database */
+    private static String states (Resource[] resources) {
+        List<String> states = new ArrayList<>();
+        
+        for (int db = 1; db <= 3; db++) {
+            states.add(resources[db].getLastState());
+        }
+        
+        return states.toString();
+    }
+    
+    
+    /**
+     * A database simulated in memory: it keeps the state of its transaction branches.
+     */
+    private static class Resource implements XAResource {
+        
+        private final Map<Xid, String> branches = new LinkedHashMap<>();
+        private Xid last;
+        private int commits;
+        private boolean read_only;
+        private boolean fail_prepare;
+        private boolean fail_commit;
+        
+        
+        @Override
+        public synchronized void start (Xid xid, int flags) throws XAException {
+            if (flags == TMNOFLAGS) {
+                last = xid;
+            }
+            branches.put(xid, ACTIVE);
+        }
+        
+        @Override
+        public synchronized void end (Xid xid, int flags) throws XAException {
+            check(xid, ACTIVE);
+        }
+        
+        @Override
+        public synchronized int prepare (Xid xid) throws XAException {
+            if (fail_prepare) {
+                branches.put(xid, ROLLEDBACK);
+                throw new XAException(XAException.XA_RBROLLBACK);
+            }
+            branches.put(xid, read_only ? READONLY : PREPARED);
+            
+            return read_only ? XA_RDONLY : XA_OK;
+        }
+        
+        /* Add a prepared branch, e.g. of a transaction interrupted by a crash */
+        synchronized void setInDoubt (Xid xid) {
+            branches.put(xid, PREPARED);
+        }
+        
+        @Override
+        public synchronized void commit (Xid xid, boolean one_phase) throws XAException {
+            check(xid, PREPARED);
+            
+            if (fail_commit) {
+                throw new XAException(XAException.XAER_RMFAIL);
+            }
+            branches.put(xid, COMMITTED);
+            commits++;
+        }
+        
+        @Override
+        public synchronized void rollback (Xid xid) throws XAException {
+            if (!branches.containsKey(xid) || branches.get(xid).equals(COMMITTED)) {
+                throw new XAException(XAException.XAER_NOTA);
+            }
+            branches.put(xid, ROLLEDBACK);
+        }
+        
+        @Override
+        public synchronized Xid[] recover (int flag) throws XAException {
+            List<Xid> prepared = new ArrayList<>();
+            
+            for (Map.Entry<Xid, String> branch : branches.entrySet()) {
+                if (branch.getValue().equals(PREPARED)) {
+                    prepared.add(branch.getKey());
+                }
+            }
+            
+            return prepared.toArray(new Xid[0]);
+        }
+        
+        @Override
+        public void forget (Xid xid) throws XAException {
+        }
+        
+        @Override
+        public int getTransactionTimeout () throws XAException {
+            return 0;
+        }
+        
+        @Override
+        public boolean setTransactionTimeout (int seconds) throws XAException {
+            return false;
+        }
+        
+        @Override
+        public boolean isSameRM (XAResource resource) throws XAException {
+            return resource == this;
+        }
+        
+        synchronized String getLastState () {
+            return branches.get(last);
+        }
+        
+        synchronized String getLastGlobalId () {
+            return FedXid.getGlobalId(last);
+        }
+        
+        private void check (Xid xid, String state) throws XAException {
+            if (!state.equals(branches.get(xid))) {
+                throw new XAException(XAException.XAER_PROTO);
+            }
+        }
+    }
+}